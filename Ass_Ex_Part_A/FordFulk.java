@@ -1,15 +1,41 @@
-import networkFlow.Edge;
-import networkFlow.ResidualGraph;
+import networkFlow.ApproximateDinicSolver;
+import networkFlow.CutCertificate;
+import networkFlow.DinicSolver;
+import networkFlow.FlowCheckpoint;
+import networkFlow.FlowGraph;
+import networkFlow.MappedNetwork;
+import networkFlow.MaxFlowSolver;
+import networkFlow.MaxFlowSolvers;
+import networkFlow.SolveControl;
+import networkFlow.SolverContext;
 import networkFlow.Vertex;
 import networkFlow.Network;
 import java.util.*;
 import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
 
 /**
  * The Class FordFulk. Contains main part of the Ford-Fulkerson implementation
  * and code for file input
  */
-public class FordFulk {
+public class FordFulk implements AutoCloseable {
+
+    /**
+     * The number of edges the streaming reader parses into each batch.
+     */
+    private static final int BATCH_EDGES = 4096;
+
+    /**
+     * The number of parsed batches the streaming reader may run ahead of the
+     * builder.
+     */
+    private static final int QUEUE_BATCHES = 64;
+
+    /**
+     * Marks the end of the batches from the streaming reader.
+     */
+    private static final int[] END_OF_BATCHES = new int[0];
 
     /**
      * The name of the file that encodes the given network.
@@ -21,13 +47,191 @@ public class FordFulk {
      */
     private Network net;
 
+    /**
+     * The name of the max-flow engine to run, or "auto" to choose one from the
+     * shape of the network.
+     */
+    private String engine = MaxFlowSolvers.AUTO;
+
+    /**
+     * The fraction of the flow value by which an approximate solve may fall
+     * short of the maximum, or 0 to find a maximum flow.
+     */
+    private double epsilon;
+
+    /**
+     * The cut bounding the maximum flow found by an approximate solve, or
+     * null.
+     */
+    private CutCertificate bound;
+
+    /**
+     * The directory to hold an off-heap network, or null to build the network
+     * on the heap.
+     */
+    private Path offHeapDirectory;
+
+    /**
+     * The off-heap network, used in place of net when offHeapDirectory is set.
+     */
+    private MappedNetwork mappedNet;
+
+    /**
+     * True if the network is read by a separate thread while the part read so
+     * far is solved.
+     */
+    private boolean streaming;
+
+    /**
+     * The control of the seeding solve in progress while streaming, cancelled
+     * by the reader when it hands over another batch.
+     */
+    private volatile SolveControl seedControl;
+
+    /**
+     * The exception that stopped the streaming reader, or null.
+     */
+    private volatile Exception readerFailure;
+
+    /**
+     * The file the flow is checkpointed to while solving, or null.
+     */
+    private Path checkpointFile;
+
+    /**
+     * The time between checkpoints in seconds.
+     */
+    private long checkpointInterval = 60;
+
+    /**
+     * The checkpoint file to resume from, or null to start from zero flow.
+     */
+    private Path resumeFile;
+
+    /**
+     * The context whose network and engines are reused, or null to build a
+     * new network and engine.
+     */
+    private final SolverContext context;
+
     /**
      * Instantiates a new FordFulk object.
      *
      * @param s the name of the input file
      */
     public FordFulk(String s) {
+        this(s, null);
+    }
+
+    /**
+     * Instantiates a new FordFulk object that reads its network into, and
+     * solves it with, the storage of a context shared with other instances.
+     * The network is overwritten when the next instance sharing the context
+     * is read, so the results must be printed before then.
+     *
+     * @param s the name of the input file
+     * @param context the shared context
+     */
+    public FordFulk(String s, SolverContext context) {
         filename = s; // store name of input file
+        this.context = context;
+    }
+
+    /**
+     * Sets the max-flow engine used by fordFulkerson. The name is one of
+     * those registered with MaxFlowSolvers, or "auto" to let the selector
+     * choose from the statistics of the network.
+     *
+     * @param engine the engine name or "auto"
+     */
+    public void setEngine(String engine) {
+        if (!engine.equals(MaxFlowSolvers.AUTO) && !MaxFlowSolvers.getNames().contains(engine)) {
+            throw new IllegalArgumentException("Unknown max-flow engine: " + engine);
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * Makes fordFulkerson stop as soon as the flow is provably within a
+     * factor 1 - epsilon of the maximum, using ApproximateDinicSolver in place
+     * of the engine.
+     *
+     * @param epsilon the fraction of the flow value the gap may be, above 0
+     *                and below 1
+     */
+    public void setApproximation(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("The approximation tolerance must be above 0 and below 1");
+        }
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Makes fordFulkerson save the flow to a checkpoint file at regular
+     * intervals while it runs, and once more if it is interrupted, so that a
+     * solve that is killed can be resumed with setResume.
+     *
+     * @param file the checkpoint file
+     */
+    public void setCheckpoint(String file) {
+        this.checkpointFile = Paths.get(file);
+    }
+
+    /**
+     * Sets the time between checkpoints.
+     *
+     * @param seconds the interval in seconds
+     */
+    public void setCheckpointInterval(long seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("The checkpoint interval must be positive");
+        }
+        this.checkpointInterval = seconds;
+    }
+
+    /**
+     * Makes fordFulkerson start from the flow saved in a checkpoint file
+     * rather than from zero flow. The file must have been written for the
+     * same instance, read with the same options.
+     *
+     * @param file the checkpoint file
+     */
+    public void setResume(String file) {
+        this.resumeFile = Paths.get(file);
+    }
+
+    /**
+     * Makes readNetworkFromFile stream the network into memory-mapped files in
+     * the given directory instead of building it on the heap, for networks
+     * too large for the heap.
+     *
+     * @param directory the directory to hold the network files
+     */
+    public void setOffHeapDirectory(String directory) {
+        this.offHeapDirectory = Paths.get(directory);
+    }
+
+    /**
+     * Makes readNetworkFromFile parse the file on a separate thread and, while
+     * the builder waits for more edges, increase the flow in the part of the
+     * network read so far. Edges are only ever added, so a flow in the partial
+     * network stays valid in the whole one, and fordFulkerson then starts from
+     * it. When the file arrives more slowly than it can be parsed, most of the
+     * solve is done by the time the last line is read.
+     *
+     * @param streaming true to overlap reading and solving
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Gets the network being solved - the off-heap network if there is one.
+     *
+     * @return the network
+     */
+    private FlowGraph getGraph() {
+        return (mappedNet != null)? mappedNet : net;
     }
 
     /**
@@ -35,6 +239,14 @@ public class FordFulk {
      * file format.
      */
     public void readNetworkFromFile() {
+        if (offHeapDirectory != null) {
+            readNetworkFromFileOffHeap();
+            return;
+        }
+        if (streaming) {
+            readNetworkFromFileStreaming();
+            return;
+        }
         FileReader fr = null;
         Scanner in = null;
         // open file with name given by filename
@@ -47,8 +259,9 @@ public class FordFulk {
                 String line = in.nextLine();
                 int numVertices = Integer.parseInt(line);
 
-                // create new network with desired number of vertices
-                net = new Network(numVertices);
+                // create new network with desired number of vertices, or
+                // reuse the shared one
+                net = (context != null)? context.network(numVertices) : new Network(numVertices);
 
                 // now add the edges
                 while (in.hasNextLine()) {
@@ -86,20 +299,233 @@ public class FordFulk {
     }
 
     /**
-     * Executes Ford-Fulkerson algorithm on the constructed network net.
+     * Read in network from file into memory-mapped files in offHeapDirectory.
+     * Each line is parsed and its edges appended to the files before the next
+     * line is read, so the edge list is never held on the heap.
      */
-    public void fordFulkerson() {
-        while(true){
+    private void readNetworkFromFileOffHeap() {
+        try (BufferedReader in = new BufferedReader(new FileReader(filename))) {
+            // get number of vertices
+            String line = in.readLine();
+            int numVertices = Integer.parseInt(line.trim());
+
+            // create new off-heap network with desired number of vertices
+            mappedNet = new MappedNetwork(offHeapDirectory, numVertices);
+
+            // now stream in the edges
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] tokens = line.split("[( )]+");
+                // this line corresponds to add vertices adjacent to vertex u
+                int u = Integer.parseInt(tokens[0]);
+                int i = 1;
+                while (i < tokens.length) {
+                    // get label of vertex v adjacent to u
+                    int v = Integer.parseInt(tokens[i++]);
+                    // get capacity c of (u,v)
+                    int c = Integer.parseInt(tokens[i++]);
+                    // add edge (u,v) with capacity c to network
+                    mappedNet.addEdge(u, v, c);
+                }
+            }
+            mappedNet.finishEdges();
+        } catch (IOException e) {
+            System.err.println("IO error:");
+            System.err.println(e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Read in network from file with a reader thread that parses the edges
+     * into batches, while this thread adds them to net. Whenever no batch is
+     * waiting and the network has grown by a quarter since it was last
+     * solved, Dinic's algorithm increases the flow in the network read so far
+     * until it is maximum or the reader is about to be held up by a full
+     * queue. Rebuilding the arc index for each of these solves costs time
+     * linear in the edges read, so spacing them out geometrically keeps the
+     * total linear in the size of the network.
+     */
+    private void readNetworkFromFileStreaming() {
+        try {
+            BufferedReader in = new BufferedReader(new FileReader(filename));
+            // get number of vertices, and create the network
+            int numVertices = Integer.parseInt(in.readLine().trim());
+            net = (context != null)? context.network(numVertices) : new Network(numVertices);
+
+            BlockingQueue<int[]> batches = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+            Thread reader = new Thread(() -> readBatches(in, batches), "network reader");
+            reader.setDaemon(true);
+            reader.start();
+
+            DinicSolver seeder = new DinicSolver();
+            int seededEdges = 0;
+            while (true) {
+                int[] batch = batches.poll();
+                if (batch == null && net.getNumEdges() > seededEdges + seededEdges / 4) {
+                    // nothing to add yet - solve the network read so far
+                    SolveControl control = new SolveControl();
+                    seedControl = control;
+                    if (batches.isEmpty()) {
+                        seeder.solve(net, control);
+                    }
+                    seededEdges = net.getNumEdges();
+                    continue;
+                }
+                if (batch == null) {
+                    batch = batches.take();
+                }
+                if (batch == END_OF_BATCHES) {
+                    break;
+                }
+                for (int i = 0; i < batch.length; i += 3) {
+                    net.addEdge(batch[i], batch[i + 1], batch[i + 2]);
+                }
+            }
+            seedControl = null;
+
+            if (readerFailure instanceof IOException) {
+                throw (IOException) readerFailure;
+            } else if (readerFailure != null) {
+                throw (RuntimeException) readerFailure;
+            }
+        } catch (IOException e) {
+            System.err.println("IO error:");
+            System.err.println(e);
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while reading " + filename);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses the edge lines from in into batches of BATCH_EDGES edges, each
+     * edge given by its source, target and capacity, handing each batch to
+     * the builder as soon as it is full. Ends with END_OF_BATCHES, after
+     * recording any exception in readerFailure.
+     *
+     * @param in the reader, positioned after the number of vertices
+     * @param batches the queue to the builder
+     */
+    private void readBatches(BufferedReader in, BlockingQueue<int[]> batches) {
+        try {
+            try (BufferedReader lines = in) {
+                int[] batch = new int[3 * BATCH_EDGES];
+                int size = 0;
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    String[] tokens = line.split("[( )]+");
+                    // this line corresponds to add vertices adjacent to vertex u
+                    int u = Integer.parseInt(tokens[0]);
+                    int i = 1;
+                    while (i < tokens.length) {
+                        batch[size++] = u;
+                        batch[size++] = Integer.parseInt(tokens[i++]);
+                        batch[size++] = Integer.parseInt(tokens[i++]);
+                        if (size == batch.length) {
+                            handOver(batch, batches);
+                            batch = new int[3 * BATCH_EDGES];
+                            size = 0;
+                        }
+                    }
+                }
+                if (size > 0) {
+                    handOver(Arrays.copyOf(batch, size), batches);
+                }
+            } catch (IOException | RuntimeException e) {
+                readerFailure = e;
+            }
+            handOver(END_OF_BATCHES, batches);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            ResidualGraph residualGraph = new ResidualGraph(net);
-            LinkedList<Edge> augmentingPath = residualGraph.findAugmentingPath();
-            if(augmentingPath != null) {
-                net.augmentPath(augmentingPath);
+    /**
+     * Queues a batch for the builder. If the queue is full, or the batch is
+     * the last, any seeding solve in progress is cancelled so that the
+     * builder takes the waiting batches; otherwise the solve is left to run,
+     * as cancelling it for every batch would stop it before it finished a
+     * single phase.
+     *
+     * @param batch the batch
+     * @param batches the queue to the builder
+     * @throws InterruptedException if interrupted while the queue is full
+     */
+    private void handOver(int[] batch, BlockingQueue<int[]> batches) throws InterruptedException {
+        if (batch != END_OF_BATCHES && batches.offer(batch)) {
+            return;
+        }
+        SolveControl control = seedControl;
+        if (control != null) {
+            control.cancel();
+        }
+        batches.put(batch);
+    }
+
+    /**
+     * Executes a maximum flow engine on the constructed network net - the
+     * Ford-Fulkerson algorithm or one of its faster relatives.
+     */
+    public void fordFulkerson() {
+        FlowGraph graph = getGraph();
+        SolveControl control = new SolveControl();
+        prepareCheckpoints(graph, control);
+        if (epsilon > 0) {
+            // Main rejects this before reading; this guards other callers
+            if (!engine.equals(MaxFlowSolvers.AUTO)) {
+                throw new IllegalArgumentException("An approximate solve uses its own engine, so cannot use engine " + engine);
             }
-            else {
-                break;
+            ApproximateDinicSolver solver = new ApproximateDinicSolver(epsilon);
+            solver.solve(graph, control);
+            bound = solver.getCertificate();
+            return;
+        }
+        MaxFlowSolver solver = (context != null)? context.engine(engine, graph) : MaxFlowSolvers.create(engine, graph);
+        solver.solve(graph, control);
+    }
+
+    /**
+     * Puts back the flow saved in the resume file, if there is one, and sets
+     * up regular checkpoints of graph on control, if asked for.
+     *
+     * @param graph the network about to be solved
+     * @param control the settings steering the solve
+     */
+    private void prepareCheckpoints(FlowGraph graph, SolveControl control) {
+        if (resumeFile != null) {
+            try {
+                FlowCheckpoint.read(graph, resumeFile);
+            } catch (IOException e) {
+                System.err.println("IO error:");
+                System.err.println(e);
+                System.exit(1);
             }
+        }
+        if (checkpointFile != null) {
+            control.addProgressListener((value, upperBound) -> writeCheckpoint(graph), checkpointInterval * 1000);
+        }
+    }
 
+    /**
+     * Saves the flow of graph to the checkpoint file. A failed write is
+     * reported but does not stop the solve.
+     *
+     * @param graph the network being solved
+     */
+    private void writeCheckpoint(FlowGraph graph) {
+        try {
+            FlowCheckpoint.write(graph, checkpointFile);
+        } catch (IOException e) {
+            System.err.println("IO error:");
+            System.err.println(e);
         }
     }
 
@@ -110,20 +536,44 @@ public class FordFulk {
      * @return the flow in the network.
      */
     public int getFlow() {
-        return net.getValue();
+        return getGraph().getValue();
     }
 
     /**
      * Print the results of the execution of the Ford-Fulkerson algorithm.
      */
     public void printResults() {
-        if (net.isFlow()) {
+        if (getGraph().isFlow()) {
             System.out.println("The assignment is a valid flow");
-            System.out.println("A maximum flow has value: " + getFlow());
+            if (bound != null && bound.getCapacity() > getFlow()) {
+                System.out.println("A flow within " + (bound.getCapacity() - getFlow()) + " of the maximum has value: " + getFlow());
+                System.out.println("The maximum is at most the capacity " + bound.getCapacity() + " of the cut around the " + bound.getDescription());
+            } else {
+                System.out.println("A maximum flow has value: " + getFlow());
+            }
             System.out.println("The flows along the edges are as follows:");
-            net.printFlow();
+            getGraph().printFlow();
         } else {
             System.out.println("The assignment is not a valid flow");
         }
     }
+
+    /**
+     * Closes the off-heap network, if there is one, releasing its mappings
+     * and deleting its files from the off-heap directory.
+     */
+    @Override
+    public void close() {
+        if (mappedNet == null) {
+            return;
+        }
+        try {
+            mappedNet.close();
+        } catch (IOException e) {
+            System.err.println("IO error:");
+            System.err.println(e);
+            System.exit(1);
+        }
+        mappedNet = null;
+    }
 }
\ No newline at end of file
@@ -1,22 +1,135 @@
+import networkFlow.MaxFlowSolvers;
+import networkFlow.SolverContext;
+import java.util.*;
+
 public class Main {
 
     /**
      * The main method.
      *
-     * @param args the name of the file containing the input network.
+     * @param args the names of one or more files containing input networks,
+     *             optionally followed by -engine and an engine name, by
+     *             -approximate and a tolerance, by -stream to solve while
+     *             reading, by -offheap and a directory to hold the network
+     *             files, by -checkpoint <file> with -checkpointinterval
+     *             <seconds> and by -resume <file>. Several networks are
+     *             solved one after another reusing the same storage; they
+     *             cannot be combined with -offheap, -checkpoint or -resume.
      */
     public static void main(String args[]) {
 
-        // construct FordFulk object passing filename to constructor
-        FordFulk fordFulk = new FordFulk(args[0]);
+        // the input files, followed by the options
+        List<String> files = new ArrayList<>();
+        int firstOption = 0;
+        while (firstOption < args.length && !args[firstOption].startsWith("-")) {
+            files.add(args[firstOption++]);
+        }
+
+        // construct a FordFulk object for each file, sharing one context
+        SolverContext context = (files.size() > 1)? new SolverContext() : null;
+        List<FordFulk> runs = new ArrayList<>();
+        for (String file : files) {
+            runs.add(new FordFulk(file, context));
+        }
+
+        // apply any options given after the filenames
+        try {
+            if (files.isEmpty()) {
+                throw new IllegalArgumentException("No input file given");
+            }
+            boolean offHeap = false;
+            boolean streaming = false;
+            boolean approximate = false;
+            String engine = MaxFlowSolvers.AUTO;
+            for (int i = firstOption; i < args.length; i++) {
+                if (files.size() > 1 && (args[i].equals("-offheap") || args[i].equals("-checkpoint")
+                        || args[i].equals("-resume"))) {
+                    throw new IllegalArgumentException(args[i] + " needs a single input file");
+                }
+                offHeap |= args[i].equals("-offheap");
+                streaming |= args[i].equals("-stream");
+                approximate |= args[i].equals("-approximate");
+                if (args[i].equals("-engine") && i + 1 < args.length) {
+                    engine = args[i + 1];
+                }
+                int last = i;
+                for (FordFulk fordFulk : runs) {
+                    last = applyOption(fordFulk, args, i);
+                }
+                i = last;
+            }
+            if (offHeap && streaming) {
+                throw new IllegalArgumentException("-stream cannot be combined with -offheap");
+            }
+            if (approximate && !engine.equals(MaxFlowSolvers.AUTO)) {
+                throw new IllegalArgumentException("-approximate uses its own engine, so cannot be combined with -engine " + engine);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java Main <file> [<file> ...] [-engine auto|<name>] [-approximate <epsilon>] [-stream] [-offheap <dir>] [-checkpoint <file>] [-checkpointinterval <s>] [-resume <file>]");
+            System.err.println("Engines: " + String.join(", ", MaxFlowSolvers.getNames()));
+            System.exit(1);
+        }
 
-        // read network from file given by first argument
-        fordFulk.readNetworkFromFile();
+        for (int k = 0; k < runs.size(); k++) {
+            // closing the run releases an off-heap network's files
+            try (FordFulk fordFulk = runs.get(k)) {
+                if (runs.size() > 1) {
+                    System.out.println("Network " + files.get(k) + ":");
+                }
 
-        // apply Ford-Fulkerson algorithm to constructed network
-        fordFulk.fordFulkerson();
+                // read network from file given by first argument
+                fordFulk.readNetworkFromFile();
 
-        // check whether the assignment is a valid flow
-        fordFulk.printResults();
+                // apply Ford-Fulkerson algorithm to constructed network
+                try {
+                    fordFulk.fordFulkerson();
+                } catch (IllegalArgumentException e) {
+                    System.err.println(e.getMessage());
+                    System.exit(1);
+                }
+
+                // check whether the assignment is a valid flow
+                fordFulk.printResults();
+            }
+        }
+    }
+
+    /**
+     * Applies the option args[i], which takes its value, if it has one, from
+     * args[i + 1].
+     *
+     * @param fordFulk the object to apply the option to
+     * @param args the command line arguments
+     * @param i the index of the option
+     * @return the index of the last argument used by the option
+     * @throws IllegalArgumentException if the option is unknown, has no value
+     *                                  or has an invalid value
+     */
+    private static int applyOption(FordFulk fordFulk, String[] args, int i) {
+        if (args[i].equals("-stream")) {
+            fordFulk.setStreaming(true);
+            return i;
+        }
+        if (i + 1 >= args.length) {
+            throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+        String value = args[i + 1];
+        if (args[i].equals("-engine")) {
+            fordFulk.setEngine(value);
+        } else if (args[i].equals("-approximate")) {
+            fordFulk.setApproximation(Double.parseDouble(value));
+        } else if (args[i].equals("-checkpoint")) {
+            fordFulk.setCheckpoint(value);
+        } else if (args[i].equals("-checkpointinterval")) {
+            fordFulk.setCheckpointInterval(Long.parseLong(value));
+        } else if (args[i].equals("-resume")) {
+            fordFulk.setResume(value);
+        } else if (args[i].equals("-offheap")) {
+            fordFulk.setOffHeapDirectory(value);
+        } else {
+            throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+        return i + 1;
     }
 }
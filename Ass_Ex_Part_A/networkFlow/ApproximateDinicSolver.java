@@ -0,0 +1,157 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class ApproximateDinicSolver. Dinic's algorithm stopped as soon as the
+ * flow is provably within a factor 1 - epsilon of the maximum, for instances
+ * where a near-maximum flow found quickly is worth more than the exact one.
+ *
+ * After each breadth-first labelling the level graph gives a cut for free:
+ * for any k below the level of the sink, the vertices at level k or less are
+ * a source side whose residual capacity - the sum over residual arcs from
+ * level k to level k + 1, the only residual arcs leaving that side - bounds
+ * the flow still to be found. The cheapest of these costs one scan of the
+ * arcs per phase, and once it is at most epsilon times the flow value the
+ * remaining phases are skipped, leaving a flow of value at least
+ * (1 - epsilon) times the maximum. As later phases find long paths that each
+ * carry little flow, these are the phases skipped.
+ */
+public class ApproximateDinicSolver extends DinicSolver {
+
+    /**
+     * The fraction of the flow value the gap may be when the solve stops.
+     */
+    private final double epsilon;
+
+    /**
+     * The residual capacity of the cut after each level, for the current
+     * phase.
+     */
+    private long[] layerCut = new long[0];
+
+    /**
+     * The smallest upper bound on the maximum flow found by any phase.
+     */
+    private long upperBound;
+
+    /**
+     * The cut that stopped the solve, or null if it was stopped by the
+     * control.
+     */
+    private CutCertificate certificate;
+
+    /**
+     * Instantiates a new ApproximateDinicSolver.
+     *
+     * @param epsilon the fraction of the flow value the gap may be, at least
+     *                0 and below 1
+     */
+    public ApproximateDinicSolver(double epsilon) {
+        if (!(epsilon >= 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("The approximation tolerance must be at least 0 and below 1, not " + epsilon);
+        }
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public String getName() {
+        return "approximate";
+    }
+
+    @Override
+    public int solve(FlowGraph net, SolveControl control) {
+        upperBound = Long.MAX_VALUE;
+        certificate = null;
+        return super.solve(net, control);
+    }
+
+    /**
+     * Labels every vertex with its distance from the source, then prices the
+     * cut after each level, ending the solve if the cheapest leaves a gap of
+     * at most epsilon times the flow value.
+     *
+     * @param net the network
+     * @return true, if the sink is reachable and the gap is still too large
+     */
+    @Override
+    protected boolean buildLevels(FlowGraph net) {
+        int n = net.getNumVertices();
+        if (!super.buildLevels(net)) {
+            upperBound = value;
+            certificate = new CutCertificate(sourceSide(n, n), value, "vertices reachable from the source along residual arcs");
+            return false;
+        }
+
+        int sinkLevel = level[net.getSinkLabel()];
+        if (layerCut.length < sinkLevel) {
+            layerCut = new long[sinkLevel];
+        }
+        Arrays.fill(layerCut, 0, sinkLevel, 0L);
+        for (int u = 0; u < n; u++) {
+            int k = level[u];
+            if (k < 0 || k >= sinkLevel) {
+                continue;
+            }
+            for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                int a = net.getArc(i);
+                if (level[net.arcHead(a)] == k + 1) {
+                    layerCut[k] += net.residualCapacity(a);
+                }
+            }
+        }
+        int best = 0;
+        for (int k = 1; k < sinkLevel; k++) {
+            if (layerCut[k] < layerCut[best]) {
+                best = k;
+            }
+        }
+
+        upperBound = Math.min(upperBound, value + layerCut[best]);
+        if (layerCut[best] <= epsilon * value) {
+            certificate = new CutCertificate(sourceSide(n, best), value + layerCut[best],
+                    "vertices within " + best + " residual arcs of the source");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Marks the vertices at level maxLevel or less.
+     *
+     * @param n the number of vertices
+     * @param maxLevel the last level on the source side
+     * @return whether each vertex is on the source side
+     */
+    private boolean[] sourceSide(int n, int maxLevel) {
+        boolean[] side = new boolean[n];
+        for (int u = 0; u < n; u++) {
+            side[u] = level[u] != -1 && level[u] <= maxLevel;
+        }
+        return side;
+    }
+
+    /**
+     * Gets the best upper bound on the maximum flow found by the last solve.
+     * Each phase's cut bounds the maximum by the flow value at the start of
+     * the phase plus the cut's residual capacity, so the bound holds even if
+     * the control stopped the solve part way through a phase.
+     *
+     * @return the upper bound, or Long.MAX_VALUE if no phase began
+     */
+    public long getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Gets the cut that ended the last solve, whose capacity is the flow
+     * value plus a gap of at most epsilon times the flow value, or the cut
+     * around the vertices reachable from the source if the flow reached the
+     * maximum first.
+     *
+     * @return the cut, or null if the control stopped the solve
+     */
+    public CutCertificate getCertificate() {
+        return certificate;
+    }
+}
@@ -0,0 +1,284 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class CutBounds. Finds cheap upper bounds on the maximum flow as the
+ * smallest of two families of cuts read off breadth-first layerings of the
+ * network.
+ *
+ * The first family takes as source side every vertex within distance i of the
+ * source, for each i; the first of these is the source alone, whose capacity
+ * is the number of students in an allocation network. The second takes as
+ * sink side every vertex within distance j of the sink; the first of these is
+ * the sink alone, whose capacity is the sum of the lecturer capacities. An arc
+ * from layer d(u) to layer d(v) crosses exactly the cuts with
+ * d(u) <= i < d(v), so every cut in a family is priced with one difference
+ * array and the whole computation takes O(V+E) time.
+ *
+ * The layers are taken either along edges of positive capacity, which bounds
+ * the maximum flow before solving, or along arcs of the residual graph, which
+ * bounds how much the current flow can still grow. For any cut the capacity
+ * equals the value of the flow plus the residual capacity across the cut.
+ */
+public class CutBounds {
+
+    /**
+     * Distance given to vertices not reached by a layering.
+     */
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    /**
+     * This class only has static members.
+     */
+    private CutBounds() {
+    }
+
+    /**
+     * Finds the cheapest cut in the two families layered along edges of
+     * positive capacity. Its capacity bounds the maximum flow and does not
+     * depend on the flow net carries.
+     *
+     * @param net the network
+     * @return the cheapest cut found
+     */
+    public static CutCertificate cheapestLayerCut(FlowGraph net) {
+        return cheapestCut(net, false);
+    }
+
+    /**
+     * Finds the cheapest cut in the two families layered along arcs of the
+     * residual graph of the current flow. The layers from the source are the
+     * levels Dinic's algorithm would build next, so while a solve is under way
+     * this bound is usually far tighter than cheapestLayerCut. If no
+     * augmenting path remains the cut found has capacity equal to the flow.
+     *
+     * @param net the network
+     * @return the cheapest cut found
+     */
+    public static CutCertificate cheapestResidualLayerCut(FlowGraph net) {
+        return cheapestCut(net, true);
+    }
+
+    /**
+     * Finds the cheaper of the cut around the source alone and the cut around
+     * everything but the sink. Only the arcs at the source and sink are read,
+     * so this bound costs almost nothing when there is no time for a scan of
+     * the whole network.
+     *
+     * @param net the network
+     * @return the cheaper terminal cut
+     */
+    public static CutCertificate cheapestTerminalCut(FlowGraph net) {
+        int n = net.getNumVertices();
+        int source = net.getSourceLabel();
+        int sink = net.getSinkLabel();
+        long out = 0;
+        for (int i = net.getArcStart(source); i < net.getArcEnd(source); i++) {
+            int a = net.getArc(i);
+            if (net.arcHead(a) != source) {
+                out += weight(net, a, false);
+            }
+        }
+        long in = 0;
+        for (int i = net.getArcStart(sink); i < net.getArcEnd(sink); i++) {
+            int a = net.getArc(i);
+            if (net.arcHead(a) != sink) {
+                in += weight(net, a ^ 1, false);
+            }
+        }
+        boolean[] sourceSide = new boolean[n];
+        if (out <= in) {
+            sourceSide[source] = true;
+            return new CutCertificate(sourceSide, out, "source");
+        }
+        Arrays.fill(sourceSide, true);
+        sourceSide[sink] = false;
+        return new CutCertificate(sourceSide, in, "vertices other than the sink");
+    }
+
+    /**
+     * Finds the cheapest cut in the two layered families.
+     *
+     * @param net the network
+     * @param residual true to layer along residual arcs, false along edges
+     * @return the cheapest cut found
+     */
+    private static CutCertificate cheapestCut(FlowGraph net, boolean residual) {
+        int n = net.getNumVertices();
+        String step = residual? " residual arcs" : " edges";
+        int[] fromSource = layers(net, net.getSourceLabel(), true, residual);
+        boolean[] sourceSide = new boolean[n];
+        if (fromSource[net.getSinkLabel()] == UNREACHED) {
+            // nothing more can leave the vertices reached
+            for (int u = 0; u < n; u++) {
+                sourceSide[u] = fromSource[u] != UNREACHED;
+            }
+            return new CutCertificate(sourceSide, residual? net.getValue() : 0,
+                    "vertices reachable from the source along" + step);
+        }
+        int[] toSink = layers(net, net.getSinkLabel(), false, residual);
+
+        long[] sourceCuts = new long[fromSource[net.getSinkLabel()]];
+        long[] sinkCuts = new long[toSink[net.getSourceLabel()]];
+        priceLayerCuts(net, fromSource, toSink, residual, sourceCuts, sinkCuts);
+        int bestSource = argMin(sourceCuts);
+        int bestSink = argMin(sinkCuts);
+        long offset = residual? net.getValue() : 0;
+
+        if (sourceCuts[bestSource] <= sinkCuts[bestSink]) {
+            for (int u = 0; u < n; u++) {
+                sourceSide[u] = fromSource[u] <= bestSource;
+            }
+            return new CutCertificate(sourceSide, offset + sourceCuts[bestSource],
+                    "vertices within " + bestSource + step + " of the source");
+        }
+        for (int u = 0; u < n; u++) {
+            sourceSide[u] = toSink[u] > bestSink;
+        }
+        return new CutCertificate(sourceSide, offset + sinkCuts[bestSink],
+                "vertices more than " + bestSink + step + " from the sink");
+    }
+
+    /**
+     * Computes breadth-first distances from root along arcs of positive
+     * weight, followed forwards or, for the sink side, backwards.
+     *
+     * @param net the network
+     * @param root the vertex to start from
+     * @param forwards true to follow arcs from tail to head
+     * @param residual true to weigh arcs by residual capacity
+     * @return the distance of each vertex, or UNREACHED
+     */
+    private static int[] layers(FlowGraph net, int root, boolean forwards, boolean residual) {
+        int n = net.getNumVertices();
+        int[] distance = new int[n];
+        Arrays.fill(distance, UNREACHED);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        distance[root] = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                int a = net.getArc(i);
+                // going backwards, u is entered by the reverse of a
+                if (weight(net, forwards? a : a ^ 1, residual) <= 0) {
+                    continue;
+                }
+                int v = net.arcHead(a);
+                if (distance[v] == UNREACHED) {
+                    distance[v] = distance[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Prices every cut of both layered families in one pass over the arcs.
+     * Source cut i has source side {u : d(u) <= i} and sink cut j has sink
+     * side {u : d'(u) <= j}, where d and d' are the distances from the source
+     * and to the sink. Only cuts that separate the source from the sink are
+     * priced, so the source must reach the sink.
+     *
+     * @param net the network
+     * @param fromSource the distances from the source
+     * @param toSink the distances to the sink
+     * @param residual true to weigh arcs by residual capacity
+     * @param sourceCuts receives the weight crossing each source cut
+     * @param sinkCuts receives the weight crossing each sink cut
+     */
+    private static void priceLayerCuts(FlowGraph net, int[] fromSource, int[] toSink, boolean residual,
+            long[] sourceCuts, long[] sinkCuts) {
+        long[] sourceDelta = new long[sourceCuts.length + 1];
+        long[] sinkDelta = new long[sinkCuts.length + 1];
+        for (int u = 0; u < net.getNumVertices(); u++) {
+            for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                int a = net.getArc(i);
+                long w = weight(net, a, residual);
+                if (w == 0) {
+                    continue;
+                }
+                int v = net.arcHead(a);
+                // an arc (u,v) crosses source cuts d(u) <= i < d(v)
+                addRange(sourceDelta, fromSource[u], fromSource[v], w);
+                // and sink cuts d'(v) <= j < d'(u)
+                addRange(sinkDelta, toSink[v], toSink[u], w);
+            }
+        }
+        prefixSums(sourceDelta, sourceCuts);
+        prefixSums(sinkDelta, sinkCuts);
+    }
+
+    /**
+     * Adds w to the cuts numbered from near up to but excluding far, clipped
+     * to the cuts in the family, by updating a difference array.
+     *
+     * @param delta the difference array, one longer than the family
+     * @param near the first cut crossed
+     * @param far the first cut not crossed
+     * @param w the weight to add
+     */
+    private static void addRange(long[] delta, int near, int far, long w) {
+        int numCuts = delta.length - 1;
+        if (near >= numCuts || near >= far) {
+            return;
+        }
+        delta[near] += w;
+        if (far < numCuts) {
+            delta[far] -= w;
+        }
+    }
+
+    /**
+     * Turns a difference array into the values it encodes.
+     *
+     * @param delta the difference array
+     * @param values receives the running sums
+     */
+    private static void prefixSums(long[] delta, long[] values) {
+        long running = 0;
+        for (int i = 0; i < values.length; i++) {
+            running += delta[i];
+            values[i] = running;
+        }
+    }
+
+    /**
+     * Gets the weight of arc a: its residual capacity, or the capacity of its
+     * edge for a forward arc and 0 for a backward arc.
+     *
+     * @param net the network
+     * @param a the arc id
+     * @param residual true to weigh arcs by residual capacity
+     * @return the weight of a
+     */
+    private static long weight(FlowGraph net, int a, boolean residual) {
+        if (residual) {
+            return net.residualCapacity(a);
+        }
+        if ((a & 1) != 0) {
+            return 0;
+        }
+        return (long) net.residualCapacity(a) + net.residualCapacity(a ^ 1);
+    }
+
+    /**
+     * Gets the index of the smallest value.
+     *
+     * @param values the values, at least one
+     * @return the index of the first smallest value
+     */
+    private static int argMin(long[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,118 @@
+package networkFlow;
+
+/**
+ * The Class CutCertificate. An s-t cut of a network, given by the set of
+ * vertices on the source side, together with its capacity. A flow whose value
+ * equals the capacity of any cut is a maximum flow, so the cut certifies it.
+ */
+public class CutCertificate {
+
+    /**
+     * Whether each vertex is on the source side of the cut.
+     */
+    private final boolean[] sourceSide;
+
+    /**
+     * The total capacity of the edges from the source side to the sink side.
+     */
+    private final long capacity;
+
+    /**
+     * A description of how the cut was found.
+     */
+    private final String description;
+
+    /**
+     * Instantiates a new CutCertificate.
+     *
+     * @param sourceSide whether each vertex is on the source side
+     * @param capacity the capacity of the cut
+     * @param description how the cut was found
+     */
+    public CutCertificate(boolean[] sourceSide, long capacity, String description) {
+        this.sourceSide = sourceSide;
+        this.capacity = capacity;
+        this.description = description;
+    }
+
+    /**
+     * Builds the cut formed by the vertices reachable from the source in the
+     * residual graph. When no augmenting path remains its capacity equals the
+     * flow value.
+     *
+     * @param net the network
+     * @return the residual cut
+     */
+    public static CutCertificate residualCut(FlowGraph net) {
+        int n = net.getNumVertices();
+        boolean[] reached = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = net.getSourceLabel();
+        reached[net.getSourceLabel()] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                int a = net.getArc(i);
+                int v = net.arcHead(a);
+                if (!reached[v] && net.residualCapacity(a) > 0) {
+                    reached[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return new CutCertificate(reached, capacityOf(net, reached), "vertices reachable in the residual graph");
+    }
+
+    /**
+     * Sums the capacities of the edges leaving the given source side.
+     *
+     * @param net the network
+     * @param sourceSide whether each vertex is on the source side
+     * @return the capacity of the cut
+     */
+    static long capacityOf(FlowGraph net, boolean[] sourceSide) {
+        long capacity = 0;
+        for (int u = 0; u < net.getNumVertices(); u++) {
+            if (!sourceSide[u]) {
+                continue;
+            }
+            for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                int a = net.getArc(i);
+                if ((a & 1) == 0 && !sourceSide[net.arcHead(a)]) {
+                    capacity += net.residualCapacity(a) + net.residualCapacity(a ^ 1);
+                }
+            }
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns true if vertex u is on the source side of the cut.
+     *
+     * @param u the vertex label
+     * @return true, if u is on the source side
+     */
+    public boolean isSourceSide(int u) {
+        return sourceSide[u];
+    }
+
+    /**
+     * Gets the capacity of the cut.
+     *
+     * @return the capacity
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets a description of how the cut was found.
+     *
+     * @return the description
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,184 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class DinicSolver. Dinic's algorithm over the arc arrays of a network.
+ * Each phase labels vertices with their breadth-first distance from the
+ * source in the residual graph and then finds a blocking flow in the level
+ * graph with a depth-first search that never revisits a dead arc. On unit
+ * capacity networks such as the student to project layers this runs in
+ * O(E sqrt(V)) time.
+ */
+public class DinicSolver implements MaxFlowSolver {
+
+    /**
+     * The breadth-first distance of each vertex from the source, or -1 if the
+     * vertex is unreachable or has been found to be a dead end.
+     */
+    protected int[] level = new int[0];
+
+    /**
+     * The index in the arc list of the next arc to try from each vertex.
+     */
+    protected int[] currentArc = new int[0];
+
+    /**
+     * The queue used by the breadth-first search.
+     */
+    protected int[] queue = new int[0];
+
+    /**
+     * The arcs of the depth-first search path from the source.
+     */
+    protected int[] pathArcs = new int[0];
+
+    /**
+     * The number of dead ends retreated from between checks of the control,
+     * minus one, so that a search that finds few paths still stops promptly.
+     */
+    private static final int CHECK_MASK = 1023;
+
+    /**
+     * The settings steering the current solve.
+     */
+    protected SolveControl control;
+
+    /**
+     * The value of the flow during the current solve.
+     */
+    protected int value;
+
+    @Override
+    public String getName() {
+        return "dinic";
+    }
+
+    @Override
+    public int solve(FlowGraph net, SolveControl control) {
+        allocate(net.getNumVertices());
+        this.control = control;
+        value = net.getValue();
+        while (!control.shouldStop(value) && buildLevels(net) && !control.shouldStop(value)) {
+            blockingFlow(net);
+        }
+        return value;
+    }
+
+    /**
+     * Makes sure the work arrays can hold n vertices.
+     *
+     * @param n the number of vertices
+     */
+    protected void allocate(int n) {
+        if (level.length < n) {
+            level = new int[n];
+            currentArc = new int[n];
+            queue = new int[n];
+            pathArcs = new int[n];
+        }
+    }
+
+    /**
+     * Labels every vertex with its distance from the source over residual
+     * arcs.
+     *
+     * @param net the network
+     * @return true, if the sink is reachable from the source
+     */
+    protected boolean buildLevels(FlowGraph net) {
+        int n = net.getNumVertices();
+        Arrays.fill(level, 0, n, -1);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = net.getSourceLabel();
+        level[net.getSourceLabel()] = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                int a = net.getArc(i);
+                int v = net.arcHead(a);
+                if (level[v] == -1 && net.residualCapacity(a) > 0) {
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return level[net.getSinkLabel()] != -1;
+    }
+
+    /**
+     * Saturates every source to sink path of the level graph. The search
+     * advances along arcs to the next level, augments when it reaches the
+     * sink and retreats from dead ends, marking them so they are not entered
+     * again this phase. Stops early, leaving the phase unfinished, if the
+     * control asks the engine to stop.
+     *
+     * @param net the network
+     * @return the amount by which the flow was increased
+     */
+    protected int blockingFlow(FlowGraph net) {
+        int n = net.getNumVertices();
+        for (int u = 0; u < n; u++) {
+            currentArc[u] = net.getArcStart(u);
+        }
+        int source = net.getSourceLabel();
+        int sink = net.getSinkLabel();
+        int total = 0;
+        int deadEnds = 0;
+        int depth = 0;
+        int u = source;
+
+        while (true) {
+            if (u == sink) {
+                // augment by the bottleneck and retreat to the first saturated arc
+                int bottleneck = Integer.MAX_VALUE;
+                for (int k = 0; k < depth; k++) {
+                    bottleneck = Math.min(bottleneck, net.residualCapacity(pathArcs[k]));
+                }
+                int retreatTo = -1;
+                for (int k = 0; k < depth; k++) {
+                    net.pushFlow(pathArcs[k], bottleneck);
+                    if (retreatTo == -1 && net.residualCapacity(pathArcs[k]) == 0) {
+                        retreatTo = k;
+                    }
+                }
+                total += bottleneck;
+                value += bottleneck;
+                if (control.shouldStop(value)) {
+                    return total;
+                }
+                depth = retreatTo;
+                u = net.arcTail(pathArcs[depth]);
+                continue;
+            }
+
+            int end = net.getArcEnd(u);
+            int i = currentArc[u];
+            while (i < end) {
+                int a = net.getArc(i);
+                int v = net.arcHead(a);
+                if (level[v] == level[u] + 1 && net.residualCapacity(a) > 0) {
+                    break;
+                }
+                i++;
+            }
+            currentArc[u] = i;
+
+            if (i < end) {
+                int a = net.getArc(i);
+                pathArcs[depth++] = a;
+                u = net.arcHead(a);
+            } else {
+                // dead end - remove u from the level graph and step back
+                level[u] = -1;
+                if (depth == 0 || ((++deadEnds & CHECK_MASK) == 0 && control.shouldStop(value))) {
+                    return total;
+                }
+                int a = pathArcs[--depth];
+                u = net.arcTail(a);
+                currentArc[u]++;
+            }
+        }
+    }
+}
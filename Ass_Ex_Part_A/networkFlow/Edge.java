@@ -1,7 +1,9 @@
 package networkFlow;
 
 /**
- * The Class Edge. Represents an edge (u,v) in a directed graph
+ * The Class Edge. Represents an edge (u,v) in a directed graph. An Edge
+ * obtained from a DirectedGraph is a view of one entry of the graph's edge
+ * arrays, so reading and writing its flow and capacity act on the graph.
  */
 public class Edge {
 
@@ -27,6 +29,17 @@ public class Edge {
      */
     private int capacity;
 
+    /**
+     * The graph whose edge arrays back this edge, or null for a stand-alone
+     * edge.
+     */
+    private final DirectedGraph graph;
+
+    /**
+     * The id of the edge within graph, or -1 for a stand-alone edge.
+     */
+    private final int id;
+
     /**
      * Instantiates a new edge. Constructor used by DirectedGraph class.
      *
@@ -36,6 +49,8 @@ public class Edge {
     public Edge(Vertex uu, Vertex vv) {
         sourceEndpoint = uu;
         targetEndpoint = vv;
+        graph = null;
+        id = -1;
     }
 
     /**
@@ -50,6 +65,31 @@ public class Edge {
         targetEndpoint = vv;
         flow = 0;
         capacity = c;
+        graph = null;
+        id = -1;
+    }
+
+    /**
+     * Instantiates an edge backed by edge e of graph g. Constructor used by the
+     * DirectedGraph class.
+     *
+     * @param g the graph holding the edge
+     * @param e the edge id
+     */
+    Edge(DirectedGraph g, int e) {
+        sourceEndpoint = g.getVertexByIndex(g.edgeTail[e]);
+        targetEndpoint = g.getVertexByIndex(g.edgeHead[e]);
+        graph = g;
+        id = e;
+    }
+
+    /**
+     * Gets the id of the edge within its graph.
+     *
+     * @return the edge id, or -1 for a stand-alone edge
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -76,6 +116,9 @@ public class Edge {
      * @return the flow
      */
     public int getFlow() {
+        if (graph != null) {
+            return graph.edgeFlow[id];
+        }
         return flow;
     }
 
@@ -85,7 +128,11 @@ public class Edge {
      * @param f the new flow
      */
     public void setFlow(int f) {
-        flow = f;
+        if (graph != null) {
+            graph.edgeFlow[id] = f;
+        } else {
+            flow = f;
+        }
     }
 
     /**
@@ -94,6 +141,9 @@ public class Edge {
      * @return the capacity
      */
     public int getCap() {
+        if (graph != null) {
+            return graph.edgeCap[id];
+        }
         return capacity;
     }
 
@@ -103,6 +153,10 @@ public class Edge {
      * @param c the new capacity
      */
     public void setCap(int c) {
-        capacity = c;
+        if (graph != null) {
+            graph.edgeCap[id] = c;
+        } else {
+            capacity = c;
+        }
     }
 }
@@ -0,0 +1,68 @@
+package networkFlow;
+
+/**
+ * The Class FlowPublisher. Lets other threads watch the flow while a solve
+ * runs, without locks and without stopping the solver thread. The solver
+ * thread copies the flow through the watched edges into a new FlowSnapshot
+ * and publishes it through a volatile reference, typically from a progress
+ * listener on the solve's SolveControl, which every engine calls only while
+ * the network carries a valid flow. Readers take the latest snapshot with
+ * getSnapshot at any time; as a published snapshot is never written again,
+ * a reader can neither see a torn flow nor hold up the solver, however long
+ * it keeps the snapshot.
+ *
+ * Only one thread may publish, but any number may read.
+ */
+public class FlowPublisher {
+
+    /**
+     * The latest snapshot published, or null if there is none yet.
+     */
+    private volatile FlowSnapshot latest;
+
+    /**
+     * The number of snapshots published, only written by the publishing
+     * thread.
+     */
+    private long epoch;
+
+    /**
+     * Publishes the flow through the given edges of net, and its value, as
+     * the latest snapshot. Must be called from the thread running the solve,
+     * at a moment when the network carries a valid flow.
+     *
+     * @param net the network being solved
+     * @param edges the ids of the edges to watch
+     * @param value the value of the flow
+     * @param complete true, if the solve has finished
+     */
+    public void publish(Network net, int[] edges, long value, boolean complete) {
+        int[] flow = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            flow[i] = net.getEdgeFlow(edges[i]);
+        }
+        publish(flow, value, complete);
+    }
+
+    /**
+     * Publishes flows already known, such as those of a flow that was never
+     * built in a network, and their value, as the latest snapshot. The array
+     * is kept by the snapshot, so it must not be written again.
+     *
+     * @param flow the flow through each watched edge
+     * @param value the value of the flow
+     * @param complete true, if the solve has finished
+     */
+    public void publish(int[] flow, long value, boolean complete) {
+        latest = new FlowSnapshot(epoch++, value, flow, complete);
+    }
+
+    /**
+     * Gets the latest snapshot published. May be called from any thread.
+     *
+     * @return the snapshot, or null if none has been published
+     */
+    public FlowSnapshot getSnapshot() {
+        return latest;
+    }
+}
@@ -0,0 +1,242 @@
+package networkFlow;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The Class FlowScenario. A what-if variant of a network, sharing the
+ * immutable structure of a FlowTopology and holding only what differs: its
+ * own flow and, once any capacity is changed, its own copy of the
+ * capacities. Dozens of scenarios of one instance therefore cost one flow
+ * array each, plus one capacity array for each scenario that changes a
+ * capacity, rather than a full copy of the network each, and they can be
+ * solved in parallel by solveAll.
+ */
+public class FlowScenario implements FlowGraph {
+
+    /**
+     * The shared structure.
+     */
+    private final FlowTopology topology;
+
+    /**
+     * The capacity of each edge - the topology's array until a capacity is
+     * changed, then a private copy.
+     */
+    private int[] edgeCap;
+
+    /**
+     * The flow through each edge.
+     */
+    private final int[] edgeFlow;
+
+    /**
+     * Instantiates a new FlowScenario with the base capacities of topology and
+     * no flow.
+     *
+     * @param topology the shared structure
+     */
+    public FlowScenario(FlowTopology topology) {
+        this.topology = topology;
+        this.edgeCap = topology.edgeCap;
+        this.edgeFlow = new int[topology.numEdges];
+    }
+
+    /**
+     * Gets the shared structure of the scenario.
+     *
+     * @return the topology
+     */
+    public FlowTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the capacity of edge e in this scenario.
+     *
+     * @param e the edge id
+     * @return the capacity of e
+     */
+    public int getEdgeCapacity(int e) {
+        return edgeCap[e];
+    }
+
+    /**
+     * Sets the capacity of edge e in this scenario only, copying the
+     * capacities on the first change.
+     *
+     * @param e the edge id
+     * @param capacity the new capacity
+     */
+    public void setEdgeCapacity(int e, int capacity) {
+        if (edgeCap == topology.edgeCap) {
+            edgeCap = edgeCap.clone();
+        }
+        edgeCap[e] = capacity;
+    }
+
+    /**
+     * Gets the flow through edge e.
+     *
+     * @param e the edge id
+     * @return the flow through e
+     */
+    public int getEdgeFlow(int e) {
+        return edgeFlow[e];
+    }
+
+    @Override
+    public int getNumVertices() {
+        return topology.numVertices;
+    }
+
+    @Override
+    public int getSourceLabel() {
+        return topology.sourceLabel;
+    }
+
+    @Override
+    public int getSinkLabel() {
+        return topology.sinkLabel;
+    }
+
+    @Override
+    public int getArcStart(int u) {
+        return topology.arcStart[u];
+    }
+
+    @Override
+    public int getArcEnd(int u) {
+        return topology.arcStart[u + 1];
+    }
+
+    @Override
+    public int getArc(int i) {
+        return topology.arcList[i];
+    }
+
+    @Override
+    public int arcTail(int a) {
+        return (a & 1) == 0 ? topology.edgeTail[a >> 1] : topology.edgeHead[a >> 1];
+    }
+
+    @Override
+    public int arcHead(int a) {
+        return (a & 1) == 0 ? topology.edgeHead[a >> 1] : topology.edgeTail[a >> 1];
+    }
+
+    @Override
+    public int residualCapacity(int a) {
+        int e = a >> 1;
+        return (a & 1) == 0 ? edgeCap[e] - edgeFlow[e] : edgeFlow[e];
+    }
+
+    @Override
+    public void pushFlow(int a, int amount) {
+        if ((a & 1) == 0) {
+            edgeFlow[a >> 1] += amount;
+        } else {
+            edgeFlow[a >> 1] -= amount;
+        }
+    }
+
+    @Override
+    public int getValue() {
+        int value = 0;
+        for (int i = getArcStart(topology.sourceLabel); i < getArcEnd(topology.sourceLabel); i++) {
+            int a = topology.arcList[i];
+            if ((a & 1) == 0) {
+                value += edgeFlow[a >> 1];
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isFlow() {
+        long[] balance = new long[topology.numVertices];
+        for (int e = 0; e < topology.numEdges; e++) {
+            int tail = topology.edgeTail[e];
+            int head = topology.edgeHead[e];
+            if (edgeFlow[e] < 0 || edgeFlow[e] > edgeCap[e]) {
+                return false;
+            }
+            if ((head == topology.sourceLabel || tail == topology.sinkLabel) && edgeFlow[e] != 0) {
+                return false;
+            }
+            balance[tail] -= edgeFlow[e];
+            balance[head] += edgeFlow[e];
+        }
+        for (int u = 0; u < topology.numVertices; u++) {
+            if (u != topology.sourceLabel && u != topology.sinkLabel && balance[u] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void printFlow() {
+        for (int u = 0; u < topology.numVertices; u++) {
+            for (int i = getArcStart(u); i < getArcEnd(u); i++) {
+                int a = topology.arcList[i];
+                if ((a & 1) == 0) {
+                    int e = a >> 1;
+                    System.out.printf("(%d,%d) %d/%d%n", u, topology.edgeHead[e], edgeCap[e], edgeFlow[e]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that the named engine can solve scenarios, so that a caller can
+     * reject it before doing any other work.
+     *
+     * @param engine the name of the engine, or "auto"
+     * @throws IllegalArgumentException if the engine is unknown or only runs
+     *                                  on a Network
+     */
+    public static void checkEngine(String engine) {
+        if (!engine.equals(MaxFlowSolvers.AUTO) && MaxFlowSolvers.create(engine).needsNetwork()) {
+            throw new IllegalArgumentException("The " + engine + " engine only runs on a Network, so cannot solve scenarios");
+        }
+    }
+
+    /**
+     * Solves every scenario to a maximum flow, running up to threads solves
+     * at once. Each scenario gets its own engine, as engines keep work arrays
+     * between calls.
+     *
+     * @param scenarios the scenarios to solve
+     * @param engine the name of the engine, or "auto"
+     * @param threads the number of solves to run at once
+     * @return the maximum flow value of each scenario, in order
+     * @throws IllegalArgumentException if the engine cannot solve scenarios
+     */
+    public static int[] solveAll(List<FlowScenario> scenarios, String engine, int threads) {
+        checkEngine(engine);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (FlowScenario scenario : scenarios) {
+                MaxFlowSolver solver = MaxFlowSolvers.create(engine, scenario);
+                results.add(executor.submit(() -> solver.solve(scenario)));
+            }
+            int[] values = new int[scenarios.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = results.get(i).get();
+            }
+            return values;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving scenarios", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("A scenario could not be solved", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package networkFlow;
+
+/**
+ * The Class FlowSnapshot. The flow through a chosen list of edges and the
+ * flow value at one moment of a solve, as published by a FlowPublisher. A
+ * snapshot is never changed once published, so any thread may read it at
+ * any time and always sees one consistent flow.
+ */
+public class FlowSnapshot {
+
+    /**
+     * The number of snapshots published before this one by its publisher.
+     */
+    private final long epoch;
+
+    /**
+     * The value of the flow.
+     */
+    private final long value;
+
+    /**
+     * The flow through each watched edge, in the order they were listed.
+     */
+    private final int[] flow;
+
+    /**
+     * True if the solve had finished when the snapshot was taken.
+     */
+    private final boolean complete;
+
+    /**
+     * Instantiates a new FlowSnapshot, taking over the given flow array.
+     *
+     * @param epoch the number of snapshots published before this one
+     * @param value the value of the flow
+     * @param flow the flow through each watched edge
+     * @param complete true, if the solve had finished
+     */
+    FlowSnapshot(long epoch, long value, int[] flow, boolean complete) {
+        this.epoch = epoch;
+        this.value = value;
+        this.flow = flow;
+        this.complete = complete;
+    }
+
+    /**
+     * Gets the epoch of the snapshot, which grows by one with each snapshot
+     * published, so that a reader can tell whether anything has changed
+     * since it last looked.
+     *
+     * @return the epoch
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Gets the value of the flow when the snapshot was taken.
+     *
+     * @return the flow value
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the number of watched edges.
+     *
+     * @return the number of edges
+     */
+    public int getNumEdges() {
+        return flow.length;
+    }
+
+    /**
+     * Gets the flow through the i-th watched edge.
+     *
+     * @param i the position of the edge in the watched list
+     * @return the flow through the edge
+     */
+    public int getFlow(int i) {
+        return flow[i];
+    }
+
+    /**
+     * Returns true if the snapshot was taken after the solve finished, so
+     * that no later snapshot will follow it.
+     *
+     * @return true, if the solve had finished
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,106 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class FlowTopology. An immutable copy of the structure of a network -
+ * its vertices, edges, base capacities and arc index - that any number of
+ * FlowScenario objects can share, including from several threads at once.
+ * Nothing in it changes after construction, so no locking is needed; each
+ * scenario keeps its own flow and only copies the capacities it changes.
+ */
+public class FlowTopology {
+
+    /**
+     * Number of vertices.
+     */
+    final int numVertices;
+
+    /**
+     * Number of edges.
+     */
+    final int numEdges;
+
+    /**
+     * Label of the source vertex.
+     */
+    final int sourceLabel;
+
+    /**
+     * Label of the sink vertex.
+     */
+    final int sinkLabel;
+
+    /**
+     * The tail label of each edge.
+     */
+    final int[] edgeTail;
+
+    /**
+     * The head label of each edge.
+     */
+    final int[] edgeHead;
+
+    /**
+     * The base capacity of each edge.
+     */
+    final int[] edgeCap;
+
+    /**
+     * The arcs leaving vertex u are arcList[arcStart[u]] to
+     * arcList[arcStart[u + 1] - 1].
+     */
+    final int[] arcStart;
+
+    /**
+     * The arc ids grouped by tail vertex.
+     */
+    final int[] arcList;
+
+    /**
+     * Instantiates a new FlowTopology copying the structure and capacities of
+     * net. Later changes to net do not affect it.
+     *
+     * @param net the network
+     */
+    public FlowTopology(Network net) {
+        net.ensureArcIndex();
+        numVertices = net.numVertices;
+        numEdges = net.numEdges;
+        sourceLabel = net.sourceLabel;
+        sinkLabel = net.sinkLabel;
+        edgeTail = Arrays.copyOf(net.edgeTail, numEdges);
+        edgeHead = Arrays.copyOf(net.edgeHead, numEdges);
+        edgeCap = Arrays.copyOf(net.edgeCap, numEdges);
+        arcStart = Arrays.copyOf(net.arcStart, numVertices + 1);
+        arcList = Arrays.copyOf(net.arcList, 2 * numEdges);
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Gets the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Gets the base capacity of edge e.
+     *
+     * @param e the edge id
+     * @return the base capacity of e
+     */
+    public int getEdgeCapacity(int e) {
+        return edgeCap[e];
+    }
+}
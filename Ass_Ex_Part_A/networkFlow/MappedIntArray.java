@@ -0,0 +1,137 @@
+package networkFlow;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The Class MappedIntArray. An array of ints held in a memory-mapped file
+ * rather than on the heap. The file is mapped in fixed-size chunks, as a
+ * single mapping is limited to 2 GB, and the array grows by remapping its
+ * last chunk and mapping further chunks. The operating system pages chunks
+ * in and out as they are used. The file is scratch space: it is truncated
+ * when the array is created and deleted when it is closed.
+ */
+public class MappedIntArray implements Closeable {
+
+    /**
+     * log2 of the number of ints in each chunk - 2^26 ints is 256 MB.
+     */
+    private static final int CHUNK_SHIFT = 26;
+
+    /**
+     * The number of ints in each chunk.
+     */
+    private static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+
+    /**
+     * Mask selecting the position of an index within its chunk.
+     */
+    private static final long CHUNK_MASK = CHUNK_INTS - 1;
+
+    /**
+     * The backing file.
+     */
+    private final Path file;
+
+    /**
+     * The file channel the chunks are mapped from.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The mapped chunks.
+     */
+    private IntBuffer[] chunks;
+
+    /**
+     * The number of ints the array currently holds.
+     */
+    private long length;
+
+    /**
+     * Creates a new array backed by the given file, which is created or
+     * truncated. The initial contents are zero.
+     *
+     * @param file the backing file
+     * @param length the initial number of ints
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public MappedIntArray(Path file, long length) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        chunks = new IntBuffer[0];
+        this.length = 0;
+        ensureLength(length);
+    }
+
+    /**
+     * Grows the array, if necessary, so that it holds at least newLength ints.
+     * New entries are zero.
+     *
+     * @param newLength the number of ints needed
+     * @throws IOException if a new chunk cannot be mapped
+     */
+    public void ensureLength(long newLength) throws IOException {
+        int numChunks = (int) ((newLength + CHUNK_INTS - 1) >>> CHUNK_SHIFT);
+        if (numChunks > chunks.length) {
+            chunks = Arrays.copyOf(chunks, numChunks);
+        }
+        // every chunk but the last is mapped in full; the last is remapped
+        // whenever it has to grow, so the file is only as long as needed
+        for (int c = 0; c < numChunks; c++) {
+            long needed = Math.min(CHUNK_INTS, newLength - ((long) c << CHUNK_SHIFT));
+            if (chunks[c] == null || chunks[c].capacity() < needed) {
+                long position = ((long) c << CHUNK_SHIFT) * Integer.BYTES;
+                chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, position, needed * Integer.BYTES)
+                        .order(ByteOrder.nativeOrder()).asIntBuffer();
+            }
+        }
+        length = Math.max(length, newLength);
+    }
+
+    /**
+     * Gets the number of ints the array holds.
+     *
+     * @return the length
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Gets the int at index i.
+     *
+     * @param i the index
+     * @return the value
+     */
+    public int get(long i) {
+        return chunks[(int) (i >>> CHUNK_SHIFT)].get((int) (i & CHUNK_MASK));
+    }
+
+    /**
+     * Sets the int at index i.
+     *
+     * @param i the index
+     * @param value the new value
+     */
+    public void set(long i, int value) {
+        chunks[(int) (i >>> CHUNK_SHIFT)].put((int) (i & CHUNK_MASK), value);
+    }
+
+    /**
+     * Closes and deletes the backing file. The mappings stay valid until they
+     * are garbage collected, but the array must not be used afterwards.
+     *
+     * @throws IOException if the file cannot be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        chunks = new IntBuffer[0];
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,277 @@
+package networkFlow;
+
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * The Class MappedNetwork. A network whose edge arrays and arc index live in
+ * memory-mapped files in a working directory instead of on the heap, for
+ * instances too large for the heap. Uses the same layout as Network - edge
+ * arrays indexed by edge id and arcs grouped by tail - so any engine written
+ * against FlowGraph runs over it unchanged.
+ *
+ * Edges are appended one at a time while the degree of each vertex is
+ * counted, so a parser can stream edges straight into the files. Once all
+ * edges are added, finishEdges builds the arc index in place and the network
+ * can be solved.
+ */
+public class MappedNetwork implements FlowGraph, Closeable {
+
+    /**
+     * Number of ints the edge files grow by when full.
+     */
+    private static final long GROWTH = 1 << 20;
+
+    /**
+     * Number of vertices in the network.
+     */
+    private final int numVertices;
+
+    /**
+     * Number of edges in the network.
+     */
+    private int numEdges;
+
+    /**
+     * True once finishEdges has built the arc index.
+     */
+    private boolean finished;
+
+    /**
+     * The tail label of each edge.
+     */
+    private final MappedIntArray edgeTail;
+
+    /**
+     * The head label of each edge.
+     */
+    private final MappedIntArray edgeHead;
+
+    /**
+     * The capacity of each edge.
+     */
+    private final MappedIntArray edgeCap;
+
+    /**
+     * The flow through each edge.
+     */
+    private final MappedIntArray edgeFlow;
+
+    /**
+     * The degree of each vertex while edges are added, then the offset of
+     * each vertex's first arc in arcList.
+     */
+    private final MappedIntArray arcStart;
+
+    /**
+     * The arcs grouped by tail vertex.
+     */
+    private final MappedIntArray arcList;
+
+    /**
+     * Creates an empty network with n vertices whose files are created in the
+     * given directory. The source has label 0 and the sink label n - 1.
+     *
+     * @param directory the directory to hold the backing files
+     * @param n the number of vertices
+     * @throws IOException if the files cannot be created
+     */
+    public MappedNetwork(Path directory, int n) throws IOException {
+        Files.createDirectories(directory);
+        numVertices = n;
+        numEdges = 0;
+        finished = false;
+        edgeTail = new MappedIntArray(directory.resolve("edge-tail.bin"), GROWTH);
+        edgeHead = new MappedIntArray(directory.resolve("edge-head.bin"), GROWTH);
+        edgeCap = new MappedIntArray(directory.resolve("edge-cap.bin"), GROWTH);
+        edgeFlow = new MappedIntArray(directory.resolve("edge-flow.bin"), GROWTH);
+        arcStart = new MappedIntArray(directory.resolve("arc-start.bin"), (long) n + 1);
+        arcList = new MappedIntArray(directory.resolve("arc-list.bin"), 0);
+    }
+
+    /**
+     * Appends the edge from u to v with the given capacity and zero flow.
+     *
+     * @param u the label of the source endpoint
+     * @param v the label of the target endpoint
+     * @param capacity the capacity of the edge
+     * @return the id of the new edge
+     * @throws IOException if the files cannot be grown
+     */
+    public int addEdge(int u, int v, int capacity) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Edges cannot be added after finishEdges");
+        }
+        if (numEdges == edgeTail.length()) {
+            long newLength = edgeTail.length() + GROWTH;
+            edgeTail.ensureLength(newLength);
+            edgeHead.ensureLength(newLength);
+            edgeCap.ensureLength(newLength);
+            edgeFlow.ensureLength(newLength);
+        }
+        int e = numEdges++;
+        edgeTail.set(e, u);
+        edgeHead.set(e, v);
+        edgeCap.set(e, capacity);
+        arcStart.set(u, arcStart.get(u) + 1);
+        arcStart.set(v, arcStart.get(v) + 1);
+        return e;
+    }
+
+    /**
+     * Builds the arc index once every edge has been added. The degree counts
+     * are turned into running totals, and the arcs are then scattered in
+     * reverse order, each decrementing its tail's total, which leaves every
+     * total pointing at the start of its vertex's arcs and keeps each vertex's
+     * arcs in edge order.
+     *
+     * @throws IOException if the arc file cannot be grown
+     */
+    public void finishEdges() throws IOException {
+        if (finished) {
+            return;
+        }
+        long numArcs = 2L * numEdges;
+        arcList.ensureLength(numArcs);
+        int total = 0;
+        for (int u = 0; u < numVertices; u++) {
+            total += arcStart.get(u);
+            arcStart.set(u, total);
+        }
+        arcStart.set(numVertices, total);
+        for (int a = (int) numArcs - 1; a >= 0; a--) {
+            int u = arcTail(a);
+            int position = arcStart.get(u) - 1;
+            arcStart.set(u, position);
+            arcList.set(position, a);
+        }
+        finished = true;
+    }
+
+    /**
+     * Gets the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    @Override
+    public int getSourceLabel() {
+        return 0;
+    }
+
+    @Override
+    public int getSinkLabel() {
+        return numVertices - 1;
+    }
+
+    @Override
+    public int getArcStart(int u) {
+        return arcStart.get(u);
+    }
+
+    @Override
+    public int getArcEnd(int u) {
+        return arcStart.get(u + 1);
+    }
+
+    @Override
+    public int getArc(int i) {
+        return arcList.get(i);
+    }
+
+    @Override
+    public int arcTail(int a) {
+        return (a & 1) == 0 ? edgeTail.get(a >> 1) : edgeHead.get(a >> 1);
+    }
+
+    @Override
+    public int arcHead(int a) {
+        return (a & 1) == 0 ? edgeHead.get(a >> 1) : edgeTail.get(a >> 1);
+    }
+
+    @Override
+    public int residualCapacity(int a) {
+        int e = a >> 1;
+        return (a & 1) == 0 ? edgeCap.get(e) - edgeFlow.get(e) : edgeFlow.get(e);
+    }
+
+    @Override
+    public void pushFlow(int a, int amount) {
+        int e = a >> 1;
+        edgeFlow.set(e, edgeFlow.get(e) + (((a & 1) == 0)? amount : -amount));
+    }
+
+    @Override
+    public int getValue() {
+        int value = 0;
+        int source = getSourceLabel();
+        for (int i = getArcStart(source); i < getArcEnd(source); i++) {
+            int a = getArc(i);
+            if ((a & 1) == 0) {
+                value += edgeFlow.get(a >> 1);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isFlow() {
+        // net flow into each vertex - one entry per vertex, not per edge
+        long[] balance = new long[numVertices];
+        for (int e = 0; e < numEdges; e++) {
+            int flow = edgeFlow.get(e);
+            int tail = edgeTail.get(e);
+            int head = edgeHead.get(e);
+            if (flow > edgeCap.get(e)) {
+                return false;
+            }
+            if ((head == getSourceLabel() || tail == getSinkLabel()) && flow != 0) {
+                return false;
+            }
+            balance[tail] -= flow;
+            balance[head] += flow;
+        }
+        for (int u = 0; u < numVertices; u++) {
+            if (u != getSourceLabel() && u != getSinkLabel() && balance[u] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void printFlow() {
+        for (int u = 0; u < numVertices; u++) {
+            for (int i = getArcStart(u); i < getArcEnd(u); i++) {
+                int a = getArc(i);
+                if ((a & 1) == 0) {
+                    int e = a >> 1;
+                    System.out.printf("(%d,%d) %d/%d%n", u, edgeHead.get(e), edgeCap.get(e), edgeFlow.get(e));
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes and deletes the backing files.
+     *
+     * @throws IOException if a file cannot be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        edgeTail.close();
+        edgeHead.close();
+        edgeCap.close();
+        edgeFlow.close();
+        arcStart.close();
+        arcList.close();
+    }
+}
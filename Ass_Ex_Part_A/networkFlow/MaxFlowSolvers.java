@@ -0,0 +1,126 @@
+package networkFlow;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * The Class MaxFlowSolvers. The registry of maximum flow engines, and the
+ * selector that picks an engine from the shape of a network.
+ */
+public class MaxFlowSolvers {
+
+    /**
+     * The name that asks for an engine to be chosen automatically.
+     */
+    public static final String AUTO = "auto";
+
+    /**
+     * Factories for the registered engines, in registration order.
+     */
+    private static final Map<String, Supplier<MaxFlowSolver>> ENGINES = new LinkedHashMap<>();
+
+    static {
+        register("residual", ResidualGraphSolver::new);
+        register("bfs", () -> new AugmentingPathSolver("bfs", new BreadthFirstPathSearch()));
+        register("bitset", () -> new AugmentingPathSolver("bitset", new BitsetPathSearch()));
+        register("bidirectional", () -> new AugmentingPathSolver("bidirectional", new BidirectionalPathSearch()));
+        register("dinic", DinicSolver::new);
+        register("linkcut", LinkCutDinicSolver::new);
+        register("bk", BoykovKolmogorovSolver::new);
+    }
+
+    /**
+     * This class only has static members.
+     */
+    private MaxFlowSolvers() {
+    }
+
+    /**
+     * Registers an engine, replacing any engine with the same name.
+     *
+     * @param name the engine name
+     * @param factory creates a new instance of the engine
+     */
+    public static synchronized void register(String name, Supplier<MaxFlowSolver> factory) {
+        ENGINES.put(name, factory);
+    }
+
+    /**
+     * Gets the names of the registered engines.
+     *
+     * @return the engine names, in registration order
+     */
+    public static synchronized Set<String> getNames() {
+        return new LinkedHashSet<>(ENGINES.keySet());
+    }
+
+    /**
+     * Creates a new instance of the named engine.
+     *
+     * @param name the engine name
+     * @return the engine
+     * @throws IllegalArgumentException if no engine has that name
+     */
+    public static synchronized MaxFlowSolver create(String name) {
+        Supplier<MaxFlowSolver> factory = ENGINES.get(name);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown max-flow engine: " + name);
+        }
+        return factory.get();
+    }
+
+    /**
+     * Creates the named engine, or the engine chosen by select if the name is
+     * AUTO.
+     *
+     * @param name the engine name or AUTO
+     * @param net the graph to be solved
+     * @return the engine
+     */
+    public static MaxFlowSolver create(String name, FlowGraph net) {
+        return create(resolve(name, net));
+    }
+
+    /**
+     * Gets the name of the engine that create(name, net) would create. Graphs
+     * other than a Network are not scanned for statistics and get Dinic, as
+     * they are only used for instances too large for the heap.
+     *
+     * @param name the engine name or AUTO
+     * @param net the graph to be solved
+     * @return the engine name
+     */
+    public static String resolve(String name, FlowGraph net) {
+        if (!name.equals(AUTO)) {
+            return name;
+        }
+        if (net instanceof Network) {
+            return select(new GraphStatistics((Network) net));
+        }
+        return "dinic";
+    }
+
+    /**
+     * Chooses the engine expected to be fastest for a network with the given
+     * statistics.
+     *
+     * Tiny networks use the reference engine. Layered networks whose densest
+     * layers are mostly unit capacity and more than 5% full, such as
+     * allocations where every student lists many projects, use the
+     * bidirectional search, which needs only a few short searches. Everything
+     * else uses Dinic, which on the generated allocation benchmarks is one to
+     * two orders of magnitude faster than the single-path engines.
+     *
+     * @param stats the statistics of the network
+     * @return the name of the chosen engine
+     */
+    public static String select(GraphStatistics stats) {
+        if (stats.getNumEdges() <= 64) {
+            return "residual";
+        }
+        if (stats.isLayered() && stats.getMaxLayerDensity() > 0.05 && stats.getUnitCapacityShare() > 0.9) {
+            return "bidirectional";
+        }
+        return "dinic";
+    }
+}
@@ -0,0 +1,22 @@
+package networkFlow;
+
+/**
+ * The Interface PathSearch. A strategy for finding augmenting paths in the
+ * residual graph of a network directly from its arc arrays, without building a
+ * ResidualGraph.
+ */
+public interface PathSearch {
+
+    /**
+     * Finds an augmenting path from the source to the sink of net if one
+     * exists. The arcs of the path are written to path[0] .. path[length - 1]
+     * in order from the source to the sink; every one of them has positive
+     * residual capacity.
+     *
+     * @param net the network
+     * @param path the array to receive the arcs, of length at least
+     *             net.getNumVertices() - 1
+     * @return the number of arcs in the path, or -1 if there is no path
+     */
+    int findPath(FlowGraph net, int[] path);
+}
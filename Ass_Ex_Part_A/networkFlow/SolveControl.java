@@ -0,0 +1,196 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class SolveControl. Settings a caller passes to a MaxFlowSolver to
+ * steer a solve while it runs. Engines consult it after every augmentation,
+ * and stop when the flow meets a known upper bound, when a deadline passes or
+ * when another thread cancels the solve. Every augmentation leaves a valid
+ * flow, so an engine stopped early still leaves a feasible flow in the
+ * network.
+ */
+public class SolveControl {
+
+    /**
+     * Receives the progress of a solve.
+     */
+    public interface ProgressListener {
+
+        /**
+         * Called with the value of the flow so far. The network carries a
+         * valid flow during the call.
+         *
+         * @param value the current flow value
+         * @param upperBound the upper bound set on the control
+         */
+        void progress(long value, long upperBound);
+    }
+
+    /**
+     * The flow value at which the solve may stop, because a known upper bound
+     * shows that no larger flow exists.
+     */
+    private long stopValue = Long.MAX_VALUE;
+
+    /**
+     * The System.nanoTime at which the solve must stop, if hasDeadline.
+     */
+    private long deadline;
+
+    /**
+     * True if a deadline has been set.
+     */
+    private boolean hasDeadline = false;
+
+    /**
+     * Set by cancel, possibly from another thread.
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * True once the solve has been stopped by the deadline or by cancel.
+     */
+    private boolean interrupted = false;
+
+    /**
+     * The listeners told of progress.
+     */
+    private final List<ProgressListener> listeners = new ArrayList<>();
+
+    /**
+     * The least time in nanoseconds between calls to each listener.
+     */
+    private long[] progressInterval = new long[0];
+
+    /**
+     * The System.nanoTime at which each listener was last called.
+     */
+    private long[] lastProgress = new long[0];
+
+    /**
+     * Sets a known upper bound on the maximum flow value, such as the
+     * capacity of a cut. Engines stop as soon as their flow reaches it, which
+     * saves the final search that would otherwise be needed to prove the flow
+     * maximum.
+     *
+     * @param bound the upper bound
+     */
+    public void setUpperBound(long bound) {
+        stopValue = bound;
+    }
+
+    /**
+     * Gets the upper bound set by setUpperBound.
+     *
+     * @return the upper bound, or Long.MAX_VALUE if none was set
+     */
+    public long getUpperBound() {
+        return stopValue;
+    }
+
+    /**
+     * Sets a limit on the time the solve may take from now.
+     *
+     * @param millis the time limit in milliseconds
+     */
+    public void setTimeLimit(long millis) {
+        deadline = System.nanoTime() + millis * 1000000;
+        hasDeadline = true;
+    }
+
+    /**
+     * Returns true if a time limit has been set.
+     *
+     * @return true, if the solve has a deadline
+     */
+    public boolean hasTimeLimit() {
+        return hasDeadline;
+    }
+
+    /**
+     * Asks the solve to stop at the next augmentation. May be called from any
+     * thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Adds a listener to be told the flow value as the solve progresses, at
+     * most once per interval.
+     *
+     * @param listener the listener
+     * @param intervalMillis the least time between calls in milliseconds
+     */
+    public void addProgressListener(ProgressListener listener, long intervalMillis) {
+        int k = listeners.size();
+        listeners.add(listener);
+        progressInterval = Arrays.copyOf(progressInterval, k + 1);
+        lastProgress = Arrays.copyOf(lastProgress, k + 1);
+        progressInterval[k] = intervalMillis * 1000000;
+        lastProgress[k] = System.nanoTime();
+    }
+
+    /**
+     * Returns true if the next call to shouldStop will report progress to at
+     * least one listener, so that an engine holding flow outside the network
+     * knows when to write it back first.
+     *
+     * @return true, if a listener is due
+     */
+    public boolean isProgressDue() {
+        if (listeners.isEmpty()) {
+            return false;
+        }
+        long now = System.nanoTime();
+        for (int k = 0; k < lastProgress.length; k++) {
+            if (now - lastProgress[k] >= progressInterval[k]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the solve was stopped by the deadline or by cancel
+     * rather than finishing.
+     *
+     * @return true, if the solve was interrupted
+     */
+    public boolean isInterrupted() {
+        return interrupted;
+    }
+
+    /**
+     * Returns true if the solve should stop now that the flow has the given
+     * value, and reports progress to each listener when it is due.
+     *
+     * @param value the current flow value
+     * @return true, if the engine should stop
+     */
+    public boolean shouldStop(long value) {
+        if (value >= stopValue) {
+            return true;
+        }
+        if (cancelled) {
+            interrupted = true;
+            return true;
+        }
+        if (!hasDeadline && listeners.isEmpty()) {
+            return false;
+        }
+        long now = System.nanoTime();
+        for (int k = 0; k < lastProgress.length; k++) {
+            if (now - lastProgress[k] >= progressInterval[k]) {
+                lastProgress[k] = now;
+                listeners.get(k).progress(value, stopValue);
+            }
+        }
+        if (hasDeadline && now - deadline >= 0) {
+            interrupted = true;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class SolverContext. Owns the storage used to solve one instance after
+ * another in the same JVM: a single Network that is reset for each instance
+ * rather than built afresh, and one instance of each engine used, whose work
+ * arrays - queues, labels, path buffers - are kept between solves. Every
+ * array only grows when an instance is larger than any before it and is
+ * cleared only over the part the previous instance used, so once the largest
+ * instance has been seen a solve allocates next to nothing and leaves no
+ * garbage for the collector.
+ *
+ * The network handed out by network is overwritten by the next call, so the
+ * results of one instance must be read before the next is built. A context
+ * is not thread-safe; concurrent solves each need their own.
+ */
+public class SolverContext {
+
+    /**
+     * The network reused for every instance.
+     */
+    private final Network net = new Network(2);
+
+    /**
+     * The engine instances created so far, by name.
+     */
+    private final Map<String, MaxFlowSolver> engines = new HashMap<>();
+
+    /**
+     * Gets the context's network, emptied and given n vertices, ready for
+     * the edges of the next instance.
+     *
+     * @param n the number of vertices, at least 2
+     * @return the network
+     */
+    public Network network(int n) {
+        if (n < 2) {
+            throw new IllegalArgumentException("A network needs at least 2 vertices, not " + n);
+        }
+        net.reset(n);
+        return net;
+    }
+
+    /**
+     * Gets the context's instance of the named engine, or of the engine
+     * chosen for graph if the name is MaxFlowSolvers.AUTO, creating it on
+     * first use.
+     *
+     * @param name the engine name or AUTO
+     * @param graph the graph to be solved
+     * @return the engine
+     * @throws IllegalArgumentException if no engine has that name
+     */
+    public MaxFlowSolver engine(String name, FlowGraph graph) {
+        String resolved = MaxFlowSolvers.resolve(name, graph);
+        MaxFlowSolver solver = engines.get(resolved);
+        if (solver == null) {
+            solver = MaxFlowSolvers.create(resolved);
+            engines.put(resolved, solver);
+        }
+        return solver;
+    }
+
+    /**
+     * Increases the flow in the context's network to a maximum flow with the
+     * named engine.
+     *
+     * @param name the engine name or AUTO
+     * @param control the settings steering the solve
+     * @return the value of the flow when the engine stopped
+     */
+    public int solve(String name, SolveControl control) {
+        return engine(name, net).solve(net, control);
+    }
+}
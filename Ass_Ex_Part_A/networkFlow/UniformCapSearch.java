@@ -0,0 +1,85 @@
+package networkFlow;
+
+/**
+ * The Class UniformCapSearch. Finds the smallest cap k such that limiting
+ * each of a set of edges to at most k units of flow leaves the maximum flow
+ * value unchanged - in an allocation network, the most even spread of
+ * students across lecturers that still assigns as many students as possible.
+ *
+ * The cap is found by binary search, solving the network with the edges
+ * capped at each probe. A flow that is valid for one cap stays valid for any
+ * larger cap, so each probe starts from the flow of the largest cap already
+ * found too small, and stops as soon as it reaches the maximum flow value.
+ * Over the whole search the probes therefore cost a small multiple of one
+ * solve rather than one solve each.
+ */
+public class UniformCapSearch {
+
+    /**
+     * This class only has static members.
+     */
+    private UniformCapSearch() {
+    }
+
+    /**
+     * Finds the smallest uniform cap on the given edges that keeps the value
+     * of the maximum flow. net must carry a maximum flow. It is left carrying
+     * a maximum flow in which no edge in edges carries more than the cap, and
+     * with its capacities unchanged.
+     *
+     * @param net the network, carrying a maximum flow
+     * @param edges the ids of the edges to cap
+     * @param solver the engine used for each probe
+     * @return the smallest cap
+     */
+    public static int minimumCap(Network net, int[] edges, MaxFlowSolver solver) {
+        int target = net.getValue();
+        if (edges.length == 0 || target == 0) {
+            return 0;
+        }
+        int[] capacity = new int[edges.length];
+        int hi = 0;
+        for (int i = 0; i < edges.length; i++) {
+            capacity[i] = net.getEdgeCapacity(edges[i]);
+            hi = Math.max(hi, net.getEdgeFlow(edges[i]));
+        }
+        // fewer than target / edges.length units per edge cannot carry the flow
+        int lo = (int) ((target + (long) edges.length - 1) / edges.length) - 1;
+        int[] feasibleFlow = net.saveFlow();
+        int[] infeasibleFlow = new int[feasibleFlow.length];
+
+        SolveControl control = new SolveControl();
+        control.setUpperBound(target);
+        while (hi - lo > 1) {
+            int mid = lo + (hi - lo) / 2;
+            net.restoreFlow(infeasibleFlow);
+            setCaps(net, edges, capacity, mid);
+            if (solver.solve(net, control) == target) {
+                hi = mid;
+                feasibleFlow = net.saveFlow();
+            } else {
+                lo = mid;
+                infeasibleFlow = net.saveFlow();
+            }
+        }
+
+        net.restoreFlow(feasibleFlow);
+        setCaps(net, edges, capacity, Integer.MAX_VALUE);
+        return hi;
+    }
+
+    /**
+     * Sets the capacity of each edge to the smaller of its own capacity and
+     * cap.
+     *
+     * @param net the network
+     * @param edges the ids of the capped edges
+     * @param capacity the own capacity of each edge
+     * @param cap the uniform cap
+     */
+    private static void setCaps(Network net, int[] edges, int[] capacity, int cap) {
+        for (int i = 0; i < edges.length; i++) {
+            net.setEdgeCapacity(edges[i], Math.min(capacity[i], cap));
+        }
+    }
+}
@@ -0,0 +1,342 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+
+/**
+ * The Class AllocationCache. Keeps the assignments of solved instances so
+ * that an instance submitted again is answered without building or solving
+ * a network. Instances are looked up by a SHA-256 hash of their canonical
+ * form, in which each student is reduced to the sorted set of projects it
+ * may take and the students are sorted by that set. Two instances with the
+ * same form have the same maximum assignments up to the numbering of their
+ * students, so instances that list the same students in a different order,
+ * list a student's projects in a different order or repeat them, or differ
+ * only in SE flags that allow the same projects, share an entry. Projects
+ * and lecturers keep their numbers, as the results are reported by them.
+ *
+ * Entries are stored by canonical position rather than student number and
+ * mapped back through the order of the instance being looked up; students
+ * with the same set of projects are interchangeable, so the mapped
+ * assignment is a maximum assignment of that instance. The most recently
+ * used entries are kept in memory and every entry is also written to a file
+ * named by its hash in the cache directory, so that later runs share it.
+ * Only the memory is bounded: files are never removed, so the directory
+ * grows by one file of four bytes per student for every distinct instance
+ * solved, until it is deleted by hand.
+ */
+public class AllocationCache {
+
+    /**
+     * The first int of every cache file.
+     */
+    private static final int MAGIC = 0x41534341;
+
+    /**
+     * The version of the file format, also hashed into every key so that a
+     * change of canonical form cannot match entries made with the old one.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size in bytes of the buffer used for hashing, reading and writing.
+     */
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /**
+     * The number of entries kept in memory by a cache made for a single run.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The canonical form of an instance: its hash and the order of its
+     * students.
+     */
+    public static class CanonicalForm {
+
+        /**
+         * The SHA-256 hash of the canonical form, in hexadecimal.
+         */
+        private final String key;
+
+        /**
+         * The student at each canonical position, indexed from 0.
+         */
+        private final int[] order;
+
+        /**
+         * Instantiates a new CanonicalForm.
+         *
+         * @param key the hash in hexadecimal
+         * @param order the student at each canonical position
+         */
+        private CanonicalForm(String key, int[] order) {
+            this.key = key;
+            this.order = order;
+        }
+
+        /**
+         * Gets the hash of the canonical form.
+         *
+         * @return the SHA-256 hash in hexadecimal
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * The directory holding the cache files.
+     */
+    private final Path directory;
+
+    /**
+     * The most recently used entries, by key, each the project assigned to
+     * the student at each canonical position, least recently used first.
+     */
+    private final LinkedHashMap<String, int[]> recent;
+
+    /**
+     * Instantiates a new AllocationCache.
+     *
+     * @param directory the directory holding the cache files, created if
+     *                  missing
+     * @param capacity the number of entries kept in memory
+     * @throws IOException if the directory cannot be created
+     */
+    public AllocationCache(Path directory, int capacity) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one entry in memory");
+        }
+        this.directory = Files.createDirectories(directory);
+        recent = new LinkedHashMap<String, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Finds the canonical form of an instance. The students are sorted by a
+     * 32-bit fingerprint of their sets of projects, packed with the student
+     * number into a long so that the sort needs no objects, and any run of
+     * students with the same fingerprint is then sorted by the sets
+     * themselves, so the order depends only on the sets and not on the
+     * numbering of the students.
+     *
+     * @param instance the instance
+     * @return the canonical form
+     */
+    public static CanonicalForm canonicalise(AllocationInstance instance) {
+        int numStudents = instance.getNumStudents();
+        int numProjects = instance.getNumProjects();
+        int numLecturers = instance.getNumLecturers();
+
+        // each student's allowed projects, sorted without repeats, and the
+        // fingerprint of that set above the student number
+        int[][] allowed = new int[numStudents + 1][];
+        long[] keys = new long[numStudents];
+        for(int student = 1; student <= numStudents; student++) {
+            int[] set = allowedSet(instance, student);
+            allowed[student] = set;
+            keys[student - 1] = ((long) Arrays.hashCode(set) << 32) | student;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[numStudents];
+        for(int k = 0; k < numStudents; k++) {
+            order[k] = (int) keys[k];
+        }
+        for(int k = 0; k < numStudents; ) {
+            int end = k + 1;
+            while (end < numStudents && (keys[end] >>> 32) == (keys[k] >>> 32)) {
+                end++;
+            }
+            if (end - k > 1) {
+                sortBySet(order, k, end, allowed);
+            }
+            k = end;
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        hashInt(digest, buffer, VERSION);
+        hashInt(digest, buffer, numStudents);
+        hashInt(digest, buffer, numProjects);
+        hashInt(digest, buffer, numLecturers);
+        for(int project = 1; project <= numProjects; project++) {
+            hashInt(digest, buffer, instance.getProjectLecturer(project));
+            hashInt(digest, buffer, instance.getProjectCapacity(project));
+        }
+        for(int lecturer = 1; lecturer <= numLecturers; lecturer++) {
+            hashInt(digest, buffer, instance.getLecturerCapacity(lecturer));
+        }
+        for(int student : order) {
+            hashInt(digest, buffer, allowed[student].length);
+            for(int project : allowed[student]) {
+                hashInt(digest, buffer, project);
+            }
+        }
+        buffer.flip();
+        digest.update(buffer);
+
+        StringBuilder key = new StringBuilder();
+        for(byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return new CanonicalForm(key.toString(), order);
+    }
+
+    /**
+     * Finds the projects a student lists and may take, in increasing order
+     * without repeats. Lists are short, so an insertion sort is used.
+     *
+     * @param instance the instance
+     * @param student the student number
+     * @return the set of projects
+     */
+    private static int[] allowedSet(AllocationInstance instance, int student) {
+        int[] projects = instance.getStudentProjects(student);
+        int[] set = new int[projects.length];
+        int count = 0;
+        for(int project : projects) {
+            if(!instance.isAllowed(student, project)) {
+                continue;
+            }
+            int i = count;
+            while (i > 0 && set[i - 1] > project) {
+                i--;
+            }
+            if (i > 0 && set[i - 1] == project) {
+                continue;
+            }
+            System.arraycopy(set, i, set, i + 1, count - i);
+            set[i] = project;
+            count++;
+        }
+        return (count == set.length)? set : Arrays.copyOf(set, count);
+    }
+
+    /**
+     * Sorts part of the canonical order by the students' sets of projects.
+     *
+     * @param order the canonical order
+     * @param from the first position to sort
+     * @param to the position after the last to sort
+     * @param allowed each student's set of projects
+     */
+    private static void sortBySet(int[] order, int from, int to, int[][] allowed) {
+        Integer[] run = new Integer[to - from];
+        for(int k = from; k < to; k++) {
+            run[k - from] = order[k];
+        }
+        Arrays.sort(run, (s, t) -> Arrays.compare(allowed[s], allowed[t]));
+        for(int k = from; k < to; k++) {
+            order[k] = run[k - from];
+        }
+    }
+
+    /**
+     * Adds an int to the hash, through a buffer that is passed to the digest
+     * whenever it fills.
+     *
+     * @param digest the digest
+     * @param buffer the buffer
+     * @param value the int
+     */
+    private static void hashInt(MessageDigest digest, ByteBuffer buffer, int value) {
+        if (buffer.remaining() < Integer.BYTES) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+        buffer.putInt(value);
+    }
+
+    /**
+     * Looks up the assignment of an instance, in memory and then on disk.
+     *
+     * @param form the canonical form of the instance
+     * @return the project assigned to each student, or 0 if unassigned,
+     *         indexed from 1, or null if the instance is not in the cache
+     * @throws IOException if a cache file cannot be read
+     */
+    public int[] get(CanonicalForm form) throws IOException {
+        int[] canonical = recent.get(form.key);
+        if (canonical == null) {
+            canonical = readEntry(form);
+            if (canonical == null) {
+                return null;
+            }
+            recent.put(form.key, canonical);
+        }
+        int[] assignment = new int[form.order.length + 1];
+        for(int k = 0; k < form.order.length; k++) {
+            assignment[form.order[k]] = canonical[k];
+        }
+        return assignment;
+    }
+
+    /**
+     * Adds the assignment of an instance to the cache, in memory and on disk.
+     *
+     * @param form the canonical form of the instance
+     * @param assignment the project assigned to each student, or 0 if
+     *                   unassigned, indexed from 1, which must be a maximum
+     *                   assignment
+     * @throws IOException if the cache file cannot be written
+     */
+    public void put(CanonicalForm form, int[] assignment) throws IOException {
+        int[] canonical = new int[form.order.length];
+        for(int k = 0; k < form.order.length; k++) {
+            canonical[k] = assignment[form.order[k]];
+        }
+        recent.put(form.key, canonical);
+
+        Path file = directory.resolve(form.key + ".bin");
+        Path temporary = directory.resolve(form.key + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_BYTES))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(canonical.length);
+            for(int project : canonical) {
+                out.writeInt(project);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the cache file of an instance.
+     *
+     * @param form the canonical form of the instance
+     * @return the project assigned to the student at each canonical
+     *         position, or null if there is no file or it is not a complete
+     *         entry for an instance of this size
+     * @throws IOException if the file cannot be read
+     */
+    private int[] readEntry(CanonicalForm form) throws IOException {
+        Path file = directory.resolve(form.key + ".bin");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_BYTES))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != form.order.length) {
+                return null;
+            }
+            int[] canonical = new int[form.order.length];
+            for(int k = 0; k < canonical.length; k++) {
+                canonical[k] = in.readInt();
+            }
+            return canonical;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+import java.io.*;
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * The Class AllocationDelta. A change set against a saved allocation state,
+ * read from a delta file, so that a day's changes can be applied to the
+ * previous day's solved instance rather than reading and solving the whole
+ * instance again. Each non-blank line of the file is one change:
+ *
+ *   +S x Y|N p1 p2 ...  adds student x with the given SE flag and list of
+ *                       projects, or replaces student x if it exists
+ *   -S x                withdraws student x, who keeps its number but lists
+ *                       no projects
+ *   +E x p              adds project p to the end of student x's list
+ *   -E x p              removes project p from student x's list
+ *   L x lower upper     sets lecturer x's lower quota and capacity, as on a
+ *                       lecturer line of the Part C format
+ *   Lx=k Px+k ...       capacity changes, written as in a scenario file
+ *
+ * Applying the delta also repairs the saved assignment where the changes
+ * broke it: a student loses a project it no longer lists or may no longer
+ * take, and a project or lecturer whose capacity fell below its load loses
+ * its highest-numbered students until it fits. Every other assignment is
+ * kept, so the repaired assignment is a valid flow from which a solve only
+ * has to find the students the changes made assignable.
+ */
+public class AllocationDelta {
+
+    /**
+     * The form of one capacity change in a delta, sweep or scenario file: L
+     * or P, a number or *, then =, + or - and an amount.
+     */
+    private static final Pattern CHANGE = Pattern.compile("([LP])(\\d+|\\*)([=+-])(\\d+)");
+
+    /**
+     * The capacities a line of capacity changes is applied to.
+     */
+    interface Capacities {
+
+        /**
+         * Gets a capacity as it stands before the change.
+         *
+         * @param lecturer true for a lecturer, false for a project
+         * @param x the lecturer or project number
+         * @return the capacity
+         */
+        int get(boolean lecturer, int x);
+
+        /**
+         * Sets a capacity.
+         *
+         * @param lecturer true for a lecturer, false for a project
+         * @param x the lecturer or project number
+         * @param capacity the new capacity
+         */
+        void set(boolean lecturer, int x, int capacity);
+    }
+
+    /**
+     * The non-blank lines of the delta file, trimmed.
+     */
+    private final List<String> lines;
+
+    /**
+     * Instantiates a new AllocationDelta.
+     *
+     * @param lines the changes, one per line
+     */
+    public AllocationDelta(List<String> lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * Reads a delta file.
+     *
+     * @param filename the name of the delta file
+     * @return the delta
+     * @throws IOException if the file cannot be read
+     */
+    public static AllocationDelta read(String filename) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if(!line.trim().isEmpty()) {
+                    lines.add(line.trim());
+                }
+            }
+        }
+        return new AllocationDelta(lines);
+    }
+
+    /**
+     * Gets the number of changes.
+     *
+     * @return the number of lines in the delta
+     */
+    public int size() {
+        return lines.size();
+    }
+
+    /**
+     * Applies the delta to a saved state, which is left unchanged, and
+     * repairs the assignment.
+     *
+     * @param state the saved state
+     * @return the changed instance with the repaired assignment
+     * @throws IllegalArgumentException if a line is malformed or names a
+     *                                  student, project or lecturer that does
+     *                                  not exist
+     */
+    public AllocationState apply(AllocationState state) {
+        AllocationInstance old = state.getInstance();
+        int numStudents = old.getNumStudents();
+        for(String line : lines) {
+            String[] tokens = line.split("\\s+");
+            if(tokens[0].equals("+S") && tokens.length >= 3) {
+                numStudents = Math.max(numStudents, parseNumber(tokens[1], line));
+            }
+        }
+        AllocationInstance instance = old.withNumStudents(numStudents);
+        int[] assignment = Arrays.copyOf(state.getAssignment(), numStudents + 1);
+
+        // students whose lists changed, whose assignments must be checked
+        Set<Integer> touched = new LinkedHashSet<>();
+        for(String line : lines) {
+            String[] tokens = line.split("\\s+");
+            if(CHANGE.matcher(tokens[0]).matches()) {
+                applyCapacityChanges(line, instance.getNumLecturers(), instance.getNumProjects(), false, "delta",
+                        new Capacities() {
+                            @Override
+                            public int get(boolean lecturer, int x) {
+                                return lecturer? instance.getLecturerCapacity(x) : instance.getProjectCapacity(x);
+                            }
+
+                            @Override
+                            public void set(boolean lecturer, int x, int capacity) {
+                                if(lecturer) {
+                                    instance.setLecturerCapacity(x, capacity);
+                                } else {
+                                    instance.setProject(x, instance.isProjectSE(x), instance.getProjectLecturer(x), capacity);
+                                }
+                            }
+                        });
+                continue;
+            }
+            if(tokens[0].equals("+S") && tokens.length >= 3 && (tokens[2].equals("Y") || tokens[2].equals("N"))) {
+                int student = parseNumber(tokens[1], line);
+                if(student < 1) {
+                    throw new IllegalArgumentException("No such student in delta line: " + line);
+                }
+                int[] projects = new int[tokens.length - 3];
+                for(int j = 3; j < tokens.length; j++) {
+                    projects[j - 3] = parseProject(instance, tokens[j], line);
+                }
+                instance.setStudent(student, tokens[2].equals("Y"), projects);
+                touched.add(student);
+            } else if(tokens[0].equals("-S") && tokens.length == 2) {
+                int student = parseStudent(instance, tokens[1], line);
+                instance.setStudent(student, instance.isStudentSE(student), new int[0]);
+                touched.add(student);
+            } else if(tokens[0].equals("+E") && tokens.length == 3) {
+                int student = parseStudent(instance, tokens[1], line);
+                int[] projects = instance.getStudentProjects(student);
+                projects = Arrays.copyOf(projects, projects.length + 1);
+                projects[projects.length - 1] = parseProject(instance, tokens[2], line);
+                instance.setStudent(student, instance.isStudentSE(student), projects);
+                touched.add(student);
+            } else if(tokens[0].equals("L") && tokens.length == 4) {
+                int lecturer = parseNumber(tokens[1], line);
+                if(lecturer < 1 || lecturer > instance.getNumLecturers()) {
+                    throw new IllegalArgumentException("No such lecturer in delta line: " + line);
+                }
+                int lowerQuota = parseNumber(tokens[2], line);
+                int capacity = parseNumber(tokens[3], line);
+                if(lowerQuota > capacity) {
+                    throw new IllegalArgumentException("Lower quota of lecturer " + lecturer + " is above its capacity in delta line: " + line);
+                }
+                instance.setLecturerLowerQuota(lecturer, lowerQuota);
+                instance.setLecturerCapacity(lecturer, capacity);
+            } else if(tokens[0].equals("-E") && tokens.length == 3) {
+                int student = parseStudent(instance, tokens[1], line);
+                int project = parseProject(instance, tokens[2], line);
+                int[] projects = Arrays.stream(instance.getStudentProjects(student)).filter(p -> p != project).toArray();
+                if(projects.length == instance.getStudentProjects(student).length) {
+                    throw new IllegalArgumentException("Student " + student + " does not list project " + project + " in delta line: " + line);
+                }
+                instance.setStudent(student, instance.isStudentSE(student), projects);
+                touched.add(student);
+            } else {
+                throw new IllegalArgumentException("Bad delta line: " + line);
+            }
+        }
+
+        for(int student : touched) {
+            int project = assignment[student];
+            if(project != 0 && (!lists(instance, student, project) || !instance.isAllowed(student, project))) {
+                assignment[student] = 0;
+            }
+        }
+        repairLoads(instance, assignment);
+        return new AllocationState(instance, assignment);
+    }
+
+    /**
+     * Undoes assignments until no project or lecturer has more students than
+     * its capacity, taking the highest-numbered students first.
+     *
+     * @param instance the changed instance
+     * @param assignment the assignment, repaired in place
+     */
+    private static void repairLoads(AllocationInstance instance, int[] assignment) {
+        int numStudents = instance.getNumStudents();
+        int[] projectLoad = new int[instance.getNumProjects() + 1];
+        int[] lecturerLoad = new int[instance.getNumLecturers() + 1];
+        for(int student = 1; student <= numStudents; student++) {
+            int project = assignment[student];
+            if(project != 0) {
+                projectLoad[project]++;
+                lecturerLoad[instance.getProjectLecturer(project)]++;
+            }
+        }
+        for(int student = numStudents; student >= 1; student--) {
+            int project = assignment[student];
+            if(project == 0) {
+                continue;
+            }
+            int lecturer = instance.getProjectLecturer(project);
+            if(projectLoad[project] > instance.getProjectCapacity(project)
+                    || lecturerLoad[lecturer] > instance.getLecturerCapacity(lecturer)) {
+                assignment[student] = 0;
+                projectLoad[project]--;
+                lecturerLoad[lecturer]--;
+            }
+        }
+    }
+
+    /**
+     * Returns true if a student lists a project.
+     *
+     * @param instance the instance
+     * @param student the student number
+     * @param project the project number
+     * @return true, if the project is on the student's list
+     */
+    private static boolean lists(AllocationInstance instance, int student, int project) {
+        for(int p : instance.getStudentProjects(student)) {
+            if(p == project) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies one line of capacity changes, separated by spaces: Lx=c sets
+     * lecturer x's capacity to c, Lx+k raises it by k, Lx-k lowers it by k
+     * and L*+k raises every lecturer's capacity by k; Px=c, Px+k, Px-k and
+     * P*+k do the same for projects. Each change sees the capacities left by
+     * those before it on the line. This is the one parser of the changes in
+     * delta, sweep and scenario files.
+     *
+     * @param line the line
+     * @param numLecturers the number of lecturers
+     * @param numProjects the number of projects
+     * @param increasesOnly true if no capacity may go down
+     * @param what "delta", "sweep" or "scenario", for error messages
+     * @param capacities the capacities to change
+     * @throws IllegalArgumentException if a change is malformed, names a
+     *                                  lecturer or project that does not
+     *                                  exist, takes a capacity below 0 or
+     *                                  lowers one when increasesOnly
+     */
+    static void applyCapacityChanges(String line, int numLecturers, int numProjects, boolean increasesOnly,
+            String what, Capacities capacities) {
+        for(String token : line.trim().split("\\s+")) {
+            Matcher m = CHANGE.matcher(token);
+            if(!m.matches()) {
+                throw new IllegalArgumentException("Bad " + what + " change: " + token);
+            }
+            boolean lecturers = m.group(1).equals("L");
+            String kind = lecturers? "lecturer" : "project";
+            int first = 1;
+            int last = lecturers? numLecturers : numProjects;
+            int amount;
+            try {
+                if(!m.group(2).equals("*")) {
+                    first = last = Integer.parseInt(m.group(2));
+                }
+                amount = Integer.parseInt(m.group(4));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad " + what + " change: " + token);
+            }
+            if(first < 1 || last > (lecturers? numLecturers : numProjects)) {
+                throw new IllegalArgumentException("No such " + kind + " in " + what + " change: " + token);
+            }
+            char op = m.group(3).charAt(0);
+            for(int x = first; x <= last; x++) {
+                int capacity = capacities.get(lecturers, x);
+                int newCapacity = (op == '+')? capacity + amount : (op == '-')? capacity - amount : amount;
+                if(increasesOnly && newCapacity < capacity) {
+                    throw new IllegalArgumentException("Capacity of " + kind + " " + x + " cannot decrease from "
+                            + capacity + " to " + newCapacity + " in a " + what);
+                }
+                if(newCapacity < 0) {
+                    throw new IllegalArgumentException("Capacity of " + kind + " " + x + " cannot go below 0 in " + what + " change: " + token);
+                }
+                capacities.set(lecturers, x, newCapacity);
+            }
+        }
+    }
+
+    /**
+     * Parses a number that is not negative.
+     *
+     * @param token the token
+     * @param line the line it is on, for error messages
+     * @return the number
+     */
+    private static int parseNumber(String token, String line) {
+        try {
+            int x = Integer.parseInt(token);
+            if(x >= 0) {
+                return x;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Bad delta line: " + line);
+    }
+
+    /**
+     * Parses the number of an existing student.
+     *
+     * @param instance the instance
+     * @param token the token
+     * @param line the line it is on, for error messages
+     * @return the student number
+     */
+    private static int parseStudent(AllocationInstance instance, String token, String line) {
+        int student = parseNumber(token, line);
+        if(student < 1 || student > instance.getNumStudents()) {
+            throw new IllegalArgumentException("No such student in delta line: " + line);
+        }
+        return student;
+    }
+
+    /**
+     * Parses the number of an existing project.
+     *
+     * @param instance the instance
+     * @param token the token
+     * @param line the line it is on, for error messages
+     * @return the project number
+     */
+    private static int parseProject(AllocationInstance instance, String token, String line) {
+        int project = parseNumber(token, line);
+        if(project < 1 || project > instance.getNumProjects()) {
+            throw new IllegalArgumentException("No such project in delta line: " + line);
+        }
+        return project;
+    }
+}
@@ -0,0 +1,280 @@
+import java.util.*;
+
+/**
+ * The Class AllocationInstance. Holds a student-project allocation instance
+ * as read from file - the students with their SE flags and preference lists,
+ * the projects with their lecturers and capacities, and the lecturers with
+ * their capacities - independently of any network built from it. Students,
+ * projects and lecturers are numbered from 1, as in the input file. A
+ * lecturer may also have a lower quota, the fewest students the lecturer
+ * must be given, as on the lecturer lines of the Part C format; it is 0
+ * unless set.
+ */
+public class AllocationInstance {
+
+    /**
+     * Number of students.
+     */
+    private final int numStudents;
+
+    /**
+     * Number of projects.
+     */
+    private final int numProjects;
+
+    /**
+     * Number of lecturers.
+     */
+    private final int numLecturers;
+
+    /**
+     * Whether each student is an SE student.
+     */
+    private final boolean[] studentSE;
+
+    /**
+     * The projects listed by each student, in file order.
+     */
+    private final int[][] studentProjects;
+
+    /**
+     * Whether each project is an SE project.
+     */
+    private final boolean[] projectSE;
+
+    /**
+     * The lecturer offering each project.
+     */
+    private final int[] projectLecturer;
+
+    /**
+     * The capacity of each project.
+     */
+    private final int[] projectCapacity;
+
+    /**
+     * The capacity of each lecturer.
+     */
+    private final int[] lecturerCapacity;
+
+    /**
+     * The lower quota of each lecturer.
+     */
+    private final int[] lecturerLowerQuota;
+
+    /**
+     * Instantiates a new instance with the given numbers of students, projects
+     * and lecturers. Students list no projects and all capacities are zero
+     * until set.
+     *
+     * @param numStudents the number of students
+     * @param numProjects the number of projects
+     * @param numLecturers the number of lecturers
+     */
+    public AllocationInstance(int numStudents, int numProjects, int numLecturers) {
+        this.numStudents = numStudents;
+        this.numProjects = numProjects;
+        this.numLecturers = numLecturers;
+        studentSE = new boolean[numStudents + 1];
+        studentProjects = new int[numStudents + 1][];
+        Arrays.fill(studentProjects, new int[0]);
+        projectSE = new boolean[numProjects + 1];
+        projectLecturer = new int[numProjects + 1];
+        projectCapacity = new int[numProjects + 1];
+        lecturerCapacity = new int[numLecturers + 1];
+        lecturerLowerQuota = new int[numLecturers + 1];
+    }
+
+    /**
+     * Returns a copy of the instance with room for more students, who list
+     * no projects until set. The preference lists are shared with this
+     * instance, which is safe as setStudent replaces a list rather than
+     * changing it.
+     *
+     * @param numStudents the number of students, at least the current number
+     * @return the copy
+     */
+    public AllocationInstance withNumStudents(int numStudents) {
+        if (numStudents < this.numStudents) {
+            throw new IllegalArgumentException("An instance cannot shrink from " + this.numStudents + " to " + numStudents + " students");
+        }
+        AllocationInstance copy = new AllocationInstance(numStudents, numProjects, numLecturers);
+        System.arraycopy(studentSE, 0, copy.studentSE, 0, this.numStudents + 1);
+        System.arraycopy(studentProjects, 0, copy.studentProjects, 0, this.numStudents + 1);
+        System.arraycopy(projectSE, 0, copy.projectSE, 0, numProjects + 1);
+        System.arraycopy(projectLecturer, 0, copy.projectLecturer, 0, numProjects + 1);
+        System.arraycopy(projectCapacity, 0, copy.projectCapacity, 0, numProjects + 1);
+        System.arraycopy(lecturerCapacity, 0, copy.lecturerCapacity, 0, numLecturers + 1);
+        System.arraycopy(lecturerLowerQuota, 0, copy.lecturerLowerQuota, 0, numLecturers + 1);
+        return copy;
+    }
+
+    /**
+     * Sets the details of a student.
+     *
+     * @param student the student number
+     * @param se true if the student is an SE student
+     * @param projects the projects the student lists
+     */
+    public void setStudent(int student, boolean se, int[] projects) {
+        studentSE[student] = se;
+        studentProjects[student] = projects;
+    }
+
+    /**
+     * Sets the details of a project.
+     *
+     * @param project the project number
+     * @param se true if the project is an SE project
+     * @param lecturer the lecturer offering the project
+     * @param capacity the capacity of the project
+     */
+    public void setProject(int project, boolean se, int lecturer, int capacity) {
+        projectSE[project] = se;
+        projectLecturer[project] = lecturer;
+        projectCapacity[project] = capacity;
+    }
+
+    /**
+     * Sets the capacity of a lecturer.
+     *
+     * @param lecturer the lecturer number
+     * @param capacity the capacity of the lecturer
+     */
+    public void setLecturerCapacity(int lecturer, int capacity) {
+        lecturerCapacity[lecturer] = capacity;
+    }
+
+    /**
+     * Sets the lower quota of a lecturer.
+     *
+     * @param lecturer the lecturer number
+     * @param lowerQuota the fewest students the lecturer must be given
+     */
+    public void setLecturerLowerQuota(int lecturer, int lowerQuota) {
+        lecturerLowerQuota[lecturer] = lowerQuota;
+    }
+
+    /**
+     * Gets the number of students.
+     *
+     * @return the number of students
+     */
+    public int getNumStudents() {
+        return numStudents;
+    }
+
+    /**
+     * Gets the number of projects.
+     *
+     * @return the number of projects
+     */
+    public int getNumProjects() {
+        return numProjects;
+    }
+
+    /**
+     * Gets the number of lecturers.
+     *
+     * @return the number of lecturers
+     */
+    public int getNumLecturers() {
+        return numLecturers;
+    }
+
+    /**
+     * Returns true if the student is an SE student.
+     *
+     * @param student the student number
+     * @return true, if the student is an SE student
+     */
+    public boolean isStudentSE(int student) {
+        return studentSE[student];
+    }
+
+    /**
+     * Gets the projects listed by a student. The array must not be modified.
+     *
+     * @param student the student number
+     * @return the listed projects, in file order
+     */
+    public int[] getStudentProjects(int student) {
+        return studentProjects[student];
+    }
+
+    /**
+     * Returns true if the project is an SE project.
+     *
+     * @param project the project number
+     * @return true, if the project is an SE project
+     */
+    public boolean isProjectSE(int project) {
+        return projectSE[project];
+    }
+
+    /**
+     * Gets the lecturer offering a project.
+     *
+     * @param project the project number
+     * @return the lecturer number
+     */
+    public int getProjectLecturer(int project) {
+        return projectLecturer[project];
+    }
+
+    /**
+     * Gets the capacity of a project.
+     *
+     * @param project the project number
+     * @return the capacity
+     */
+    public int getProjectCapacity(int project) {
+        return projectCapacity[project];
+    }
+
+    /**
+     * Gets the capacity of a lecturer.
+     *
+     * @param lecturer the lecturer number
+     * @return the capacity
+     */
+    public int getLecturerCapacity(int lecturer) {
+        return lecturerCapacity[lecturer];
+    }
+
+    /**
+     * Gets the lower quota of a lecturer.
+     *
+     * @param lecturer the lecturer number
+     * @return the lower quota, or 0 if the lecturer has none
+     */
+    public int getLecturerLowerQuota(int lecturer) {
+        return lecturerLowerQuota[lecturer];
+    }
+
+    /**
+     * Returns true if any lecturer has a lower quota.
+     *
+     * @return true, if some lower quota is above 0
+     */
+    public boolean hasLowerQuotas() {
+        for(int lecturer = 1; lecturer <= numLecturers; lecturer++) {
+            if(lecturerLowerQuota[lecturer] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the student may be assigned the project - SE students
+     * may only take SE projects.
+     *
+     * @param student the student number
+     * @param project the project number
+     * @return true, if the assignment is allowed
+     */
+    public boolean isAllowed(int student, int project) {
+        return !studentSE[student] || projectSE[project];
+    }
+}
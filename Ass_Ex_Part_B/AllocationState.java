@@ -0,0 +1,160 @@
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * The Class AllocationState. A solved instance saved for the next run: the
+ * instance itself and the project assigned to each student. The assignment
+ * determines the flow through every edge of the network built from the
+ * instance, whatever its vertex numbering or aggregation, so it is all of
+ * the flow that needs keeping, and it stays meaningful after a delta has
+ * added students or edges.
+ *
+ * The file holds a magic number and a format version, the numbers of
+ * students, projects and lecturers, each student's SE flag and list, each
+ * project's SE flag, lecturer and capacity, each lecturer's capacity and
+ * lower quota and finally each student's assigned project, all as binary
+ * ints, so reading it back needs no parsing. It is written to a temporary
+ * file that then replaces the state, so a run that is killed mid-write
+ * leaves the previous state intact.
+ */
+public class AllocationState {
+
+    /**
+     * The first int of every state file.
+     */
+    private static final int MAGIC = 0x41535446;
+
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * The size in bytes of the buffer used for reading and writing.
+     */
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /**
+     * The instance.
+     */
+    private final AllocationInstance instance;
+
+    /**
+     * The project assigned to each student, or 0 if unassigned, indexed from
+     * 1.
+     */
+    private final int[] assignment;
+
+    /**
+     * Instantiates a new AllocationState.
+     *
+     * @param instance the instance
+     * @param assignment the project assigned to each student, indexed from 1
+     */
+    public AllocationState(AllocationInstance instance, int[] assignment) {
+        this.instance = instance;
+        this.assignment = assignment;
+    }
+
+    /**
+     * Gets the instance.
+     *
+     * @return the instance
+     */
+    public AllocationInstance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Gets the project assigned to each student.
+     *
+     * @return the assigned project, or 0 if unassigned, indexed from 1
+     */
+    public int[] getAssignment() {
+        return assignment;
+    }
+
+    /**
+     * Writes the state to a file, replacing any earlier state only once the
+     * new one is complete.
+     *
+     * @param file the state file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_BYTES))) {
+            int numStudents = instance.getNumStudents();
+            int numProjects = instance.getNumProjects();
+            int numLecturers = instance.getNumLecturers();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numStudents);
+            out.writeInt(numProjects);
+            out.writeInt(numLecturers);
+            for(int student = 1; student <= numStudents; student++) {
+                int[] projects = instance.getStudentProjects(student);
+                out.writeInt(instance.isStudentSE(student)? 1 : 0);
+                out.writeInt(projects.length);
+                for(int project : projects) {
+                    out.writeInt(project);
+                }
+            }
+            for(int project = 1; project <= numProjects; project++) {
+                out.writeInt(instance.isProjectSE(project)? 1 : 0);
+                out.writeInt(instance.getProjectLecturer(project));
+                out.writeInt(instance.getProjectCapacity(project));
+            }
+            for(int lecturer = 1; lecturer <= numLecturers; lecturer++) {
+                out.writeInt(instance.getLecturerCapacity(lecturer));
+                out.writeInt(instance.getLecturerLowerQuota(lecturer));
+            }
+            for(int student = 1; student <= numStudents; student++) {
+                out.writeInt(assignment[student]);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a state written by write.
+     *
+     * @param file the state file
+     * @return the state
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a state file
+     */
+    public static AllocationState read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_BYTES))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalArgumentException(file + " is not a saved allocation state");
+            }
+            int numStudents = in.readInt();
+            int numProjects = in.readInt();
+            int numLecturers = in.readInt();
+            AllocationInstance instance = new AllocationInstance(numStudents, numProjects, numLecturers);
+            for(int student = 1; student <= numStudents; student++) {
+                boolean se = in.readInt() != 0;
+                int[] projects = new int[in.readInt()];
+                for(int j = 0; j < projects.length; j++) {
+                    projects[j] = in.readInt();
+                }
+                instance.setStudent(student, se, projects);
+            }
+            for(int project = 1; project <= numProjects; project++) {
+                boolean se = in.readInt() != 0;
+                int lecturer = in.readInt();
+                instance.setProject(project, se, lecturer, in.readInt());
+            }
+            for(int lecturer = 1; lecturer <= numLecturers; lecturer++) {
+                instance.setLecturerCapacity(lecturer, in.readInt());
+                instance.setLecturerLowerQuota(lecturer, in.readInt());
+            }
+            int[] assignment = new int[numStudents + 1];
+            for(int student = 1; student <= numStudents; student++) {
+                assignment[student] = in.readInt();
+            }
+            return new AllocationState(instance, assignment);
+        }
+    }
+}
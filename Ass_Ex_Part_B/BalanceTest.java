@@ -0,0 +1,114 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * The Class BalanceTest. Checks balanceLecturerLoad against brute force on
+ * small instances: the load printBalance reports must be the smallest
+ * largest lecturer load over all maximum assignments, and the assignment
+ * left behind must be a valid maximum assignment with that largest load.
+ * Exits with status 1 on the first mismatch.
+ */
+public class BalanceTest {
+
+    /**
+     * The form of the line printed by printBalance.
+     */
+    private static final Pattern LINE = Pattern.compile("No lecturer is assigned more than (\\d+) students? in a maximum assignment");
+
+    /**
+     * The main method.
+     *
+     * @param args the number of random instances and the random seed, both
+     *             optional
+     */
+    public static void main(String args[]) throws IOException {
+        int count = (args.length > 0)? Integer.parseInt(args[0]) : 400;
+        long seed = (args.length > 1)? Long.parseLong(args[1]) : 1;
+        Path file = Files.createTempFile("balance", ".txt");
+        Path state = Files.createTempFile("balance", ".bin");
+        try {
+            Random random = new Random(seed);
+            for(int i = 0; i < count; i++) {
+                check(file, state, TestInstances.generate(random));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(state);
+        }
+        System.out.printf("Balanced loads match brute force on %d instances%n", count);
+    }
+
+    /**
+     * Solves and balances an instance and compares the load and assignment
+     * with brute force, exiting on a mismatch.
+     *
+     * @param file the file to write the instance to
+     * @param state the file to save the balanced assignment to
+     * @param text the instance
+     */
+    private static void check(Path file, Path state, String text) throws IOException {
+        Files.write(file, text.getBytes());
+        FordFulk fordFulk = new FordFulk(file.toString());
+        fordFulk.readNetworkFromFile();
+        fordFulk.fordFulkerson();
+        fordFulk.balanceLecturerLoad();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(buffer));
+        try {
+            fordFulk.printBalance();
+        } finally {
+            System.setOut(out);
+        }
+        Matcher m = LINE.matcher(buffer.toString().trim());
+        if(!m.matches()) {
+            TestInstances.fail("Balance", text, "unexpected output: " + buffer);
+        }
+        int reported = Integer.parseInt(m.group(1));
+
+        AllocationInstance instance = TestInstances.read(text);
+        List<int[]> maximum = TestInstances.maximumAssignments(instance);
+        int expected = Integer.MAX_VALUE;
+        for(int[] assignment : maximum) {
+            expected = Math.min(expected, largestLoad(instance, assignment));
+        }
+        if(reported != expected) {
+            TestInstances.fail("Balance", text, "printBalance reports " + reported + ", but brute force finds " + expected);
+        }
+
+        int[] balanced = TestInstances.saved(fordFulk, state).getAssignment();
+        String violation = TestInstances.findViolation(instance, balanced);
+        if(violation != null) {
+            TestInstances.fail("Balance", text, violation);
+        }
+        if(TestInstances.size(balanced) != TestInstances.size(maximum.get(0))) {
+            TestInstances.fail("Balance", text, "the balanced assignment assigns " + TestInstances.size(balanced)
+                    + " students, not " + TestInstances.size(maximum.get(0)));
+        }
+        if(largestLoad(instance, balanced) != expected) {
+            TestInstances.fail("Balance", text, "the balanced assignment gives a lecturer " + largestLoad(instance, balanced)
+                    + " students, not " + expected);
+        }
+    }
+
+    /**
+     * Finds the largest number of students an assignment gives a lecturer.
+     *
+     * @param instance the instance
+     * @param assignment the project assigned to each student, or 0
+     * @return the largest lecturer load
+     */
+    private static int largestLoad(AllocationInstance instance, int[] assignment) {
+        int[] lecturerLoad = new int[instance.getNumLecturers() + 1];
+        int largest = 0;
+        for(int student = 1; student < assignment.length; student++) {
+            if(assignment[student] != 0) {
+                int lecturer = instance.getProjectLecturer(assignment[student]);
+                largest = Math.max(largest, ++lecturerLoad[lecturer]);
+            }
+        }
+        return largest;
+    }
+}
@@ -0,0 +1,539 @@
+import networkFlow.ApproximateDinicSolver;
+import networkFlow.CutBounds;
+import networkFlow.CutCertificate;
+import networkFlow.Network;
+import networkFlow.GraphStatistics;
+import networkFlow.MaxFlowSolvers;
+import networkFlow.NetworkBuilder;
+import networkFlow.ParametricSweep;
+import networkFlow.ResidualGraph;
+import networkFlow.SolveControl;
+import networkFlow.SolverContext;
+import networkFlow.VertexReordering;
+import java.util.*;
+
+/**
+ * The Class Benchmark. Generates random student-project allocation networks
+ * and times operations on them, so that changes to the network
+ * representation can be compared on instances far larger than the examples.
+ */
+public class Benchmark {
+
+    /**
+     * Number of timed repetitions of each measurement.
+     */
+    private static final int REPETITIONS = 5;
+
+    /**
+     * The main method.
+     *
+     * @param args the benchmark to run - "ordering", "engines", "sweep",
+     *             "reuse", "build", "scans", "deep" or "grid" - followed by
+     *             the number of students, projects listed per student and
+     *             random seed, all optional; for "deep", the length of the
+     *             shared path and the number of branches at its end instead
+     *             of the students and projects, and for "grid", the side of
+     *             the grid instead of the students
+     */
+    public static void main(String args[]) {
+        String mode = (args.length > 0)? args[0] : "ordering";
+        int numStudents = (args.length > 1)? Integer.parseInt(args[1]) : 1000000;
+        int preferences = (args.length > 2)? Integer.parseInt(args[2]) : 10;
+        long seed = (args.length > 3)? Long.parseLong(args[3]) : 1;
+
+        if (mode.equals("reuse")) {
+            benchmarkReuse(numStudents, preferences, seed);
+            return;
+        }
+        if (mode.equals("deep")) {
+            int length = (args.length > 1)? numStudents : 20000;
+            int branches = (args.length > 2)? preferences : 20000;
+            benchmarkSolves(generateDeep(length, branches, new Random(seed)), "dinic", "linkcut");
+            return;
+        }
+        if (mode.equals("grid")) {
+            int side = (args.length > 1)? numStudents : 1000;
+            benchmarkSolves(generateGrid(side, new Random(seed)), "dinic", "bk");
+            return;
+        }
+
+        Network net = generate(numStudents, preferences, new Random(seed));
+        System.out.printf("Network with %d vertices and %d edges%n", net.getNumVertices(), net.getNumEdges());
+
+        if (mode.equals("ordering")) {
+            benchmarkOrdering(net);
+        } else if (mode.equals("engines")) {
+            benchmarkEngines(net);
+        } else if (mode.equals("sweep")) {
+            benchmarkSweep(net);
+        } else if (mode.equals("build")) {
+            benchmarkBuild(net);
+        } else if (mode.equals("scans")) {
+            benchmarkScans(net);
+        } else {
+            System.err.println("Unknown benchmark: " + mode);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compares residual breadth-first sweeps of the network in input order
+     * and after each vertex reordering.
+     *
+     * @param net the network
+     */
+    private static void benchmarkOrdering(Network net) {
+        String[] names = {"input order", "bfs order", "rcm order"};
+        Network[] nets = {
+            net,
+            VertexReordering.breadthFirst(net).getNetwork(),
+            VertexReordering.reverseCuthillMcKee(net).getNetwork()
+        };
+        report(names, nets);
+    }
+
+    /**
+     * Compares complete solves of the network by each registered engine other
+     * than the reference engine, with and without stopping at the cheapest
+     * layered cut bound, and reports the engine the selector picks, followed
+     * by approximate solves at two tolerances.
+     *
+     * @param net the network
+     */
+    private static void benchmarkEngines(Network net) {
+        GraphStatistics stats = new GraphStatistics(net);
+        System.out.println(stats);
+        System.out.println("auto selects " + MaxFlowSolvers.select(stats));
+        CutCertificate bound = CutBounds.cheapestLayerCut(net);
+        System.out.println("layered cut bound " + bound.getCapacity() + " (" + bound.getDescription() + ")");
+        SolveControl control = new SolveControl();
+        control.setUpperBound(bound.getCapacity());
+        for (String name : MaxFlowSolvers.getNames()) {
+            if (name.equals("residual")) {
+                continue;
+            }
+            net.clearFlow();
+            long start = System.nanoTime();
+            int value = MaxFlowSolvers.create(name).solve(net);
+            long time = System.nanoTime() - start;
+            net.clearFlow();
+            start = System.nanoTime();
+            MaxFlowSolvers.create(name).solve(net, control);
+            long boundedTime = System.nanoTime() - start;
+            System.out.printf("%-14s %8.1f ms, %8.1f ms with bound (flow %d)%n", name, time / 1e6, boundedTime / 1e6, value);
+        }
+        for (double epsilon : new double[] {0.01, 0.001}) {
+            net.clearFlow();
+            ApproximateDinicSolver solver = new ApproximateDinicSolver(epsilon);
+            long start = System.nanoTime();
+            int value = solver.solve(net);
+            long time = System.nanoTime() - start;
+            System.out.printf("approx %-7s %8.1f ms (flow %d, maximum at most %d)%n", epsilon, time / 1e6, value, solver.getUpperBound());
+        }
+    }
+
+    /**
+     * Compares a parametric sweep that raises every lecturer's capacity by
+     * one at each step against solving each step from scratch with Dinic's
+     * algorithm.
+     *
+     * @param net the network
+     */
+    private static void benchmarkSweep(Network net) {
+        int steps = 10;
+        int sink = net.getSinkLabel();
+        List<Integer> lecturerEdges = new ArrayList<>();
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            if (net.getEdgeHead(e) == sink) {
+                lecturerEdges.add(e);
+            }
+        }
+        int[] edges = lecturerEdges.stream().mapToInt(Integer::intValue).toArray();
+        int[] base = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            base[i] = net.getEdgeCapacity(edges[i]);
+        }
+
+        long coldTime = 0;
+        int[] coldValues = new int[steps + 1];
+        for (int step = 0; step <= steps; step++) {
+            for (int i = 0; i < edges.length; i++) {
+                net.setEdgeCapacity(edges[i], base[i] + step);
+            }
+            net.clearFlow();
+            long start = System.nanoTime();
+            coldValues[step] = MaxFlowSolvers.create("dinic").solve(net);
+            coldTime += System.nanoTime() - start;
+        }
+
+        for (int i = 0; i < edges.length; i++) {
+            net.setEdgeCapacity(edges[i], base[i]);
+        }
+        net.clearFlow();
+        long start = System.nanoTime();
+        ParametricSweep sweep = new ParametricSweep(net, MaxFlowSolvers.create("dinic"));
+        for (int step = 1; step <= steps; step++) {
+            int[] capacities = new int[edges.length];
+            for (int i = 0; i < edges.length; i++) {
+                capacities[i] = base[i] + step;
+            }
+            sweep.raiseCapacities(edges, capacities);
+        }
+        long sweepTime = System.nanoTime() - start;
+
+        System.out.println("flow per step " + sweep.getValues());
+        if (!sweep.getValues().equals(Arrays.stream(coldValues).boxed().toList())) {
+            System.out.println("sweep disagrees with cold solves " + Arrays.toString(coldValues));
+        }
+        System.out.printf("cold solves %8.1f ms%nsweep       %8.1f ms%n", coldTime / 1e6, sweepTime / 1e6);
+    }
+
+    /**
+     * Compares building a copy of the network one addEdge call at a time
+     * against handing the same edges to a NetworkBuilder in bulk, both up to
+     * a built arc index, and reports the edges built per second.
+     *
+     * @param net the network
+     */
+    private static void benchmarkBuild(Network net) {
+        int n = net.getNumVertices();
+        int m = net.getNumEdges();
+        int[] tails = new int[m];
+        int[] heads = new int[m];
+        int[] caps = new int[m];
+        for (int e = 0; e < m; e++) {
+            tails[e] = net.getEdgeTail(e);
+            heads[e] = net.getEdgeHead(e);
+            caps[e] = net.getEdgeCapacity(e);
+        }
+        long bestSingle = Long.MAX_VALUE;
+        long bestBulk = Long.MAX_VALUE;
+        for (int r = 0; r < REPETITIONS; r++) {
+            long start = System.nanoTime();
+            Network single = new Network(n);
+            for (int e = 0; e < m; e++) {
+                single.addEdge(tails[e], heads[e], caps[e]);
+            }
+            single.getArcEnd(0);
+            bestSingle = Math.min(bestSingle, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            NetworkBuilder builder = new NetworkBuilder(n, m);
+            builder.addEdges(tails, heads, caps, 0, m);
+            builder.build();
+            bestBulk = Math.min(bestBulk, System.nanoTime() - start);
+        }
+        System.out.printf("addEdge  %8.1f ms (%.0f M edges/s)%n", bestSingle / 1e6, m / (bestSingle / 1e3));
+        System.out.printf("builder  %8.1f ms (%.0f M edges/s)%n", bestBulk / 1e6, m / (bestBulk / 1e3));
+    }
+
+    /**
+     * Times the bulk passes over the edge arrays of a network carrying a
+     * maximum flow - the validity check and building the residual graph -
+     * printing the best time for each over several repetitions. Both are
+     * dominated by the hub rows of the source and the popular projects.
+     *
+     * @param net the network
+     */
+    private static void benchmarkScans(Network net) {
+        MaxFlowSolvers.create("dinic").solve(net);
+        long bestCheck = Long.MAX_VALUE;
+        long bestResidual = Long.MAX_VALUE;
+        boolean valid = false;
+        int residualEdges = 0;
+        for (int r = 0; r < REPETITIONS; r++) {
+            long start = System.nanoTime();
+            valid = net.isFlow();
+            bestCheck = Math.min(bestCheck, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            residualEdges = new ResidualGraph(net).getNumEdges();
+            bestResidual = Math.min(bestResidual, System.nanoTime() - start);
+        }
+        System.out.printf("isFlow         %8.1f ms (%s)%n", bestCheck / 1e6, valid? "valid" : "invalid");
+        System.out.printf("residual graph %8.1f ms (%d edges)%n", bestResidual / 1e6, residualEdges);
+    }
+
+    /**
+     * Compares complete solves of a network by the given engines, such as
+     * Dinic's algorithm against the link-cut tree engine on a deep network
+     * or against the Boykov-Kolmogorov engine on a grid, printing the best
+     * time for each over several interleaved repetitions.
+     *
+     * @param net the network
+     * @param engines the names of the engines
+     */
+    private static void benchmarkSolves(Network net, String... engines) {
+        System.out.printf("Network with %d vertices and %d edges%n", net.getNumVertices(), net.getNumEdges());
+        long[] best = new long[engines.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        int[] value = new int[engines.length];
+        for (int r = 0; r < REPETITIONS; r++) {
+            for (int k = 0; k < engines.length; k++) {
+                net.clearFlow();
+                long start = System.nanoTime();
+                value[k] = MaxFlowSolvers.create(engines[k]).solve(net);
+                best[k] = Math.min(best[k], System.nanoTime() - start);
+            }
+        }
+        for (int k = 0; k < engines.length; k++) {
+            System.out.printf("%-8s %10.1f ms (flow %d)%n", engines[k], best[k] / 1e6, value[k]);
+        }
+    }
+
+    /**
+     * Compares building and solving a run of instances of varying size with
+     * a new network and engine for each against reusing a SolverContext,
+     * reporting the time taken and the bytes allocated by this thread. The
+     * second half of the run is reported separately, as by then the context
+     * has seen the largest instance and should no longer allocate for the
+     * network or the engine.
+     *
+     * @param numStudents the largest number of students in an instance
+     * @param preferences the number of projects listed per student
+     * @param seed the seed of the first instance
+     */
+    private static void benchmarkReuse(int numStudents, int preferences, long seed) {
+        int instances = 20;
+        int[] sizes = new int[instances];
+        Random random = new Random(seed);
+        for (int k = 0; k < instances; k++) {
+            sizes[k] = Math.max(1, numStudents / 2 + random.nextInt(numStudents / 2 + 1));
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        SolverContext context = new SolverContext();
+        String[] names = {"fresh", "context"};
+        for (int pass = 0; pass < 2; pass++) {
+            long time = 0;
+            long bytes = 0;
+            long steadyTime = 0;
+            long steadyBytes = 0;
+            long flow = 0;
+            for (int k = 0; k < instances; k++) {
+                long startBytes = threads.getThreadAllocatedBytes(threadId);
+                long start = System.nanoTime();
+                Random instanceRandom = new Random(seed + k);
+                if (pass == 0) {
+                    Network net = generate(sizes[k], preferences, instanceRandom, null);
+                    flow += MaxFlowSolvers.create("dinic").solve(net);
+                } else {
+                    generate(sizes[k], preferences, instanceRandom, context);
+                    flow += context.solve("dinic", new SolveControl());
+                }
+                long instanceTime = System.nanoTime() - start;
+                long instanceBytes = threads.getThreadAllocatedBytes(threadId) - startBytes;
+                time += instanceTime;
+                bytes += instanceBytes;
+                if (k >= instances / 2) {
+                    steadyTime += instanceTime;
+                    steadyBytes += instanceBytes;
+                }
+            }
+            int steady = instances - instances / 2;
+            System.out.printf("%-8s %8.1f ms %10.1f MB in all, %8.1f ms %10.3f MB per instance in the second half (total flow %d)%n",
+                    names[pass], time / 1e6, bytes / 1e6, steadyTime / 1e6 / steady, steadyBytes / 1e6 / steady, flow);
+        }
+    }
+
+    /**
+     * Builds a network in the layout produced by FordFulk.readNetworkFromFile
+     * - students, then projects, then lecturers - where project popularity is
+     * skewed so that a few projects are listed by many students.
+     *
+     * @param numStudents the number of students
+     * @param preferences the number of projects listed by each student
+     * @param random the source of randomness
+     * @return the generated network
+     */
+    public static Network generate(int numStudents, int preferences, Random random) {
+        return generate(numStudents, preferences, random, null);
+    }
+
+    /**
+     * Builds a network as generate(numStudents, preferences, random) does,
+     * into the network of the given context if there is one.
+     *
+     * @param numStudents the number of students
+     * @param preferences the number of projects listed by each student
+     * @param random the source of randomness
+     * @param context the context whose network is reused, or null to build a
+     *                new network
+     * @return the generated network
+     */
+    public static Network generate(int numStudents, int preferences, Random random, SolverContext context) {
+        int numProjects = Math.max(1, numStudents / 4);
+        int numLecturers = Math.max(1, numProjects / 5);
+        int numVertices = numStudents + numProjects + numLecturers + 2;
+        Network net = (context != null)? context.network(numVertices) : new Network(numVertices);
+        int sink = net.getSinkLabel();
+
+        // popularity rank of each project, so popular projects are scattered
+        // across the project labels as in real input files
+        int[] projectByRank = new int[numProjects];
+        for (int i = 0; i < numProjects; i++) {
+            int j = random.nextInt(i + 1);
+            projectByRank[i] = projectByRank[j];
+            projectByRank[j] = i;
+        }
+
+        for (int student = 1; student <= numStudents; student++) {
+            net.addEdge(net.getSourceLabel(), student, 1);
+            for (int j = 0; j < preferences; j++) {
+                // squaring a uniform variate favours the most popular projects
+                double x = random.nextDouble();
+                int project = projectByRank[(int) (x * x * numProjects)];
+                net.addEdge(student, numStudents + 1 + project, 1);
+            }
+        }
+        for (int project = 0; project < numProjects; project++) {
+            int lecturer = project % numLecturers;
+            net.addEdge(numStudents + 1 + project, numStudents + numProjects + 1 + lecturer, 1 + random.nextInt(3));
+        }
+        for (int lecturer = 0; lecturer < numLecturers; lecturer++) {
+            net.addEdge(numStudents + numProjects + 1 + lecturer, sink, 5 + random.nextInt(10));
+        }
+        return net;
+    }
+
+    /**
+     * Builds a deep network: a path of the given length from the source,
+     * carrying enough capacity for every branch, that splits at its end into
+     * branches of random capacity leading to the sink. Every augmenting path
+     * shares the long prefix, so the blocking flow of each Dinic phase costs
+     * the length of the path for each branch saturated.
+     *
+     * @param length the number of edges on the shared path
+     * @param branches the number of branches at the end of the path
+     * @param random the source of randomness
+     * @return the generated network
+     */
+    public static Network generateDeep(int length, int branches, Random random) {
+        Network net = new Network(length + branches + 2);
+        int sink = net.getSinkLabel();
+        int capacity = 3 * branches;
+        net.addEdge(net.getSourceLabel(), 1, capacity);
+        for (int v = 1; v < length; v++) {
+            net.addEdge(v, v + 1, capacity);
+        }
+        for (int b = 0; b < branches; b++) {
+            net.addEdge(length, length + 1 + b, 1 + random.nextInt(3));
+            net.addEdge(length + 1 + b, sink, 1 + random.nextInt(3));
+        }
+        return net;
+    }
+
+    /**
+     * Builds a network shaped like an image segmentation problem: a square
+     * grid of pixels, each joined to its four neighbours in both directions,
+     * to the source by its likelihood of being foreground and to the sink by
+     * its likelihood of being background. The image is a few random discs on
+     * a background with noise added, so that the minimum cut follows their
+     * outlines.
+     *
+     * @param side the number of pixels along each side of the grid
+     * @param random the source of randomness
+     * @return the generated network
+     */
+    public static Network generateGrid(int side, Random random) {
+        boolean[] foreground = new boolean[side * side];
+        for (int disc = 0; disc < 20; disc++) {
+            int centreRow = random.nextInt(side);
+            int centreColumn = random.nextInt(side);
+            double radius = side / 8.0 * (0.5 + random.nextDouble());
+            for (int row = 0; row < side; row++) {
+                for (int column = 0; column < side; column++) {
+                    if (Math.hypot(row - centreRow, column - centreColumn) < radius) {
+                        foreground[row * side + column] = true;
+                    }
+                }
+            }
+        }
+
+        Network net = new Network(side * side + 2);
+        int source = net.getSourceLabel();
+        int sink = net.getSinkLabel();
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int pixel = 1 + row * side + column;
+                double likelihood = (foreground[pixel - 1]? 0.85 : 0.15) + 0.2 * random.nextGaussian();
+                int toSource = (int) Math.round(100 * likelihood);
+                int toSink = 100 - toSource;
+                if (toSource > 0) {
+                    net.addEdge(source, pixel, toSource);
+                }
+                if (toSink > 0) {
+                    net.addEdge(pixel, sink, toSink);
+                }
+                if (column + 1 < side) {
+                    net.addEdge(pixel, pixel + 1, 30);
+                    net.addEdge(pixel + 1, pixel, 30);
+                }
+                if (row + 1 < side) {
+                    net.addEdge(pixel, pixel + side, 30);
+                    net.addEdge(pixel + side, pixel, 30);
+                }
+            }
+        }
+        return net;
+    }
+
+    /**
+     * Times a residual breadth-first search of each network, the access
+     * pattern that dominates each augmenting-path search, and prints the best
+     * time for each over several repetitions. Every network is searched once
+     * untimed first, and the timed searches are interleaved, so that JIT
+     * compilation does not favour whichever network is measured first.
+     *
+     * @param names the name to print with each result
+     * @param nets the networks to search
+     */
+    private static void report(String[] names, Network[] nets) {
+        long[] best = new long[nets.length];
+        int[] reached = new int[nets.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        for (Network net : nets) {
+            search(net);
+        }
+        for (int r = 0; r < REPETITIONS; r++) {
+            for (int k = 0; k < nets.length; k++) {
+                long start = System.nanoTime();
+                reached[k] = search(nets[k]);
+                best[k] = Math.min(best[k], System.nanoTime() - start);
+            }
+        }
+        for (int k = 0; k < nets.length; k++) {
+            System.out.printf("%-12s %8.1f ms (%d vertices reached)%n", names[k], best[k] / 1e6, reached[k]);
+        }
+    }
+
+    /**
+     * Runs a breadth-first search over the residual arcs of net from the
+     * source.
+     *
+     * @param net the network to search
+     * @return the number of vertices reached
+     */
+    private static int search(Network net) {
+        int n = net.getNumVertices();
+        int[] queue = new int[n];
+        boolean[] visited = new boolean[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = net.getSourceLabel();
+        visited[net.getSourceLabel()] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                int a = net.getArc(i);
+                int v = net.arcHead(a);
+                if (!visited[v] && net.residualCapacity(a) > 0) {
+                    visited[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The Class CacheTest. Checks that an instance answered from the cache gets
+ * a valid assignment as large as a fresh solve of it. Each random instance
+ * is solved through the cache and then submitted again with its students
+ * renumbered, their lists shuffled and a listing repeated, which must be a
+ * cache hit. The cache keeps two entries in memory, so most hits are read
+ * back from disk. Exits with status 1 on the first mismatch.
+ */
+public class CacheTest {
+
+    /**
+     * The main method.
+     *
+     * @param args the number of random instances and the random seed, both
+     *             optional
+     */
+    public static void main(String args[]) throws IOException {
+        int count = (args.length > 0)? Integer.parseInt(args[0]) : 400;
+        long seed = (args.length > 1)? Long.parseLong(args[1]) : 1;
+        Path directory = Files.createTempDirectory("cache");
+        Path cacheDirectory = directory.resolve("entries");
+        try {
+            AllocationCache cache = new AllocationCache(cacheDirectory, 2);
+            Random random = new Random(seed);
+            for(int i = 0; i < count; i++) {
+                check(directory, cache, random);
+            }
+        } finally {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(cacheDirectory)) {
+                for(Path entry : entries) {
+                    Files.delete(entry);
+                }
+            }
+            Files.delete(cacheDirectory);
+            for(String name : new String[] {"instance.txt", "instance.bin", "fresh.bin"}) {
+                Files.deleteIfExists(directory.resolve(name));
+            }
+            Files.delete(directory);
+        }
+        System.out.printf("Cached assignments match a fresh solve on %d instances%n", count);
+    }
+
+    /**
+     * Solves a random instance and a renumbered copy of it through the cache
+     * and compares each with a fresh solve, exiting on a mismatch.
+     *
+     * @param directory the directory for the instance and state files
+     * @param cache the cache
+     * @param random the source of randomness
+     */
+    private static void check(Path directory, AllocationCache cache, Random random) throws IOException {
+        String text = TestInstances.generate(random);
+        String renumbered = TestInstances.write(renumber(TestInstances.read(text), random));
+        String failed = text + "renumbered:\n" + renumbered;
+        compare(directory, cache, text, failed, false);
+        compare(directory, cache, renumbered, failed, true);
+    }
+
+    /**
+     * Solves an instance through the cache and without it, exiting if the
+     * cached assignment is invalid or smaller.
+     *
+     * @param directory the directory for the instance and state files
+     * @param cache the cache
+     * @param text the instance
+     * @param failed the text to report on a mismatch
+     * @param hit true if the instance must be found in the cache
+     */
+    private static void compare(Path directory, AllocationCache cache, String text, String failed, boolean hit)
+            throws IOException {
+        Path file = directory.resolve("instance.txt");
+        Files.write(file, text.getBytes());
+        FordFulk fordFulk = new FordFulk(file.toString());
+        fordFulk.setCache(cache);
+        fordFulk.readNetworkFromFile();
+        fordFulk.fordFulkerson();
+        if(hit && !fordFulk.isCached()) {
+            TestInstances.fail("Cache", failed, "the renumbered instance was not found in the cache");
+        }
+        AllocationState cached = TestInstances.saved(fordFulk, directory.resolve("instance.bin"));
+        String violation = TestInstances.findViolation(cached.getInstance(), cached.getAssignment());
+        if(violation != null) {
+            TestInstances.fail("Cache", failed, violation);
+        }
+        AllocationState fresh = TestInstances.solve(file, directory.resolve("fresh.bin"));
+        if(TestInstances.size(cached.getAssignment()) != TestInstances.size(fresh.getAssignment())) {
+            TestInstances.fail("Cache", failed, "the cache assigns " + TestInstances.size(cached.getAssignment())
+                    + " students, but a fresh solve assigns " + TestInstances.size(fresh.getAssignment()));
+        }
+    }
+
+    /**
+     * Copies an instance with its students in a random order, each list
+     * shuffled and, when a list is not empty, one of its projects listed
+     * again.
+     *
+     * @param instance the instance
+     * @param random the source of randomness
+     * @return the copy
+     */
+    private static AllocationInstance renumber(AllocationInstance instance, Random random) {
+        int numStudents = instance.getNumStudents();
+        AllocationInstance copy = new AllocationInstance(numStudents, instance.getNumProjects(), instance.getNumLecturers());
+        List<Integer> order = new ArrayList<>();
+        for(int student = 1; student <= numStudents; student++) {
+            order.add(student);
+        }
+        Collections.shuffle(order, random);
+        for(int student = 1; student <= numStudents; student++) {
+            int from = order.get(student - 1);
+            List<Integer> list = new ArrayList<>();
+            for(int project : instance.getStudentProjects(from)) {
+                list.add(project);
+            }
+            if(!list.isEmpty()) {
+                list.add(list.get(random.nextInt(list.size())));
+            }
+            Collections.shuffle(list, random);
+            int[] projects = new int[list.size()];
+            for(int j = 0; j < projects.length; j++) {
+                projects[j] = list.get(j);
+            }
+            copy.setStudent(student, instance.isStudentSE(from), projects);
+        }
+        for(int project = 1; project <= instance.getNumProjects(); project++) {
+            copy.setProject(project, instance.isProjectSE(project), instance.getProjectLecturer(project),
+                    instance.getProjectCapacity(project));
+        }
+        for(int lecturer = 1; lecturer <= instance.getNumLecturers(); lecturer++) {
+            copy.setLecturerCapacity(lecturer, instance.getLecturerCapacity(lecturer));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The Class DeltaTest. Checks that a delta applied to a saved state, and
+ * solved from the repaired assignment, gives a valid assignment as large as
+ * a fresh solve of the changed instance, and that both are as large as
+ * brute force allows. The deltas add, replace and withdraw students, add
+ * and remove listings and change capacities, including lowering them below
+ * the saved loads. Exits with status 1 on the first mismatch.
+ */
+public class DeltaTest {
+
+    /**
+     * The main method.
+     *
+     * @param args the number of random instances and the random seed, both
+     *             optional
+     */
+    public static void main(String args[]) throws IOException {
+        int count = (args.length > 0)? Integer.parseInt(args[0]) : 400;
+        long seed = (args.length > 1)? Long.parseLong(args[1]) : 1;
+        Path directory = Files.createTempDirectory("delta");
+        try {
+            Random random = new Random(seed);
+            for(int i = 0; i < count; i++) {
+                check(directory, random);
+            }
+        } finally {
+            for(String name : new String[] {"instance.txt", "base.bin", "delta.txt", "repaired.bin", "fresh.txt", "fresh.bin"}) {
+                Files.deleteIfExists(directory.resolve(name));
+            }
+            Files.deleteIfExists(directory);
+        }
+        System.out.printf("Delta repair matches a fresh solve on %d instances%n", count);
+    }
+
+    /**
+     * Solves a random instance, applies a random delta to its saved state,
+     * solves again and compares the result with a fresh solve, exiting on a
+     * mismatch.
+     *
+     * @param directory the directory for the instance, delta and state files
+     * @param random the source of randomness
+     */
+    private static void check(Path directory, Random random) throws IOException {
+        String text = TestInstances.generate(random);
+        Path file = directory.resolve("instance.txt");
+        Path base = directory.resolve("base.bin");
+        Files.write(file, text.getBytes());
+        AllocationInstance instance = TestInstances.solve(file, base).getInstance();
+
+        List<String> delta = generateDelta(random, instance);
+        Path deltaFile = directory.resolve("delta.txt");
+        Files.write(deltaFile, delta);
+        String failed = text + "delta:\n" + String.join("\n", delta) + "\n";
+
+        FordFulk fordFulk = new FordFulk(base.toString());
+        fordFulk.readStateFromFile(deltaFile.toString());
+        fordFulk.fordFulkerson();
+        AllocationState repaired = TestInstances.saved(fordFulk, directory.resolve("repaired.bin"));
+        AllocationInstance changed = repaired.getInstance();
+        String violation = TestInstances.findViolation(changed, repaired.getAssignment());
+        if(violation != null) {
+            TestInstances.fail("Delta", failed, violation);
+        }
+
+        Path freshFile = directory.resolve("fresh.txt");
+        Files.write(freshFile, TestInstances.write(changed).getBytes());
+        AllocationState fresh = TestInstances.solve(freshFile, directory.resolve("fresh.bin"));
+        int expected = TestInstances.size(TestInstances.maximumAssignments(changed).get(0));
+        if(TestInstances.size(fresh.getAssignment()) != expected) {
+            TestInstances.fail("Delta", failed, "a fresh solve assigns " + TestInstances.size(fresh.getAssignment())
+                    + " students, but brute force assigns " + expected);
+        }
+        if(TestInstances.size(repaired.getAssignment()) != expected) {
+            TestInstances.fail("Delta", failed, "the delta solve assigns " + TestInstances.size(repaired.getAssignment())
+                    + " students, but a fresh solve assigns " + expected);
+        }
+    }
+
+    /**
+     * Generates a random delta against an instance, keeping track of the
+     * students' lists so that every listing removed exists.
+     *
+     * @param random the source of randomness
+     * @param instance the instance the delta is applied to
+     * @return the lines of the delta
+     */
+    private static List<String> generateDelta(Random random, AllocationInstance instance) {
+        int numProjects = instance.getNumProjects();
+        int numLecturers = instance.getNumLecturers();
+        List<List<Integer>> lists = new ArrayList<>();
+        lists.add(null);
+        for(int student = 1; student <= instance.getNumStudents(); student++) {
+            List<Integer> list = new ArrayList<>();
+            for(int project : instance.getStudentProjects(student)) {
+                list.add(project);
+            }
+            lists.add(list);
+        }
+
+        List<String> delta = new ArrayList<>();
+        int length = 1 + random.nextInt(4);
+        for(int k = 0; k < length; k++) {
+            int numStudents = lists.size() - 1;
+            int student = 1 + random.nextInt(numStudents);
+            int project = 1 + random.nextInt(numProjects);
+            switch (random.nextInt(6)) {
+            case 0:
+                // a new student, possibly leaving a gap, or a replaced one
+                int added = 1 + random.nextInt(numStudents + 2);
+                StringBuilder line = new StringBuilder("+S " + added + (random.nextInt(4) == 0? " Y" : " N"));
+                List<Integer> list = new ArrayList<>();
+                for(int j = random.nextInt(4); j > 0; j--) {
+                    int p = 1 + random.nextInt(numProjects);
+                    line.append(' ').append(p);
+                    list.add(p);
+                }
+                while (lists.size() <= added) {
+                    lists.add(new ArrayList<>());
+                }
+                lists.set(added, list);
+                delta.add(line.toString());
+                break;
+            case 1:
+                lists.set(student, new ArrayList<>());
+                delta.add("-S " + student);
+                break;
+            case 2:
+                lists.get(student).add(project);
+                delta.add("+E " + student + " " + project);
+                break;
+            case 3:
+                if(lists.get(student).isEmpty()) {
+                    k--;
+                    break;
+                }
+                int removed = lists.get(student).get(random.nextInt(lists.get(student).size()));
+                lists.get(student).removeIf(p -> p == removed);
+                delta.add("-E " + student + " " + removed);
+                break;
+            case 4:
+                delta.add("P" + project + "=" + random.nextInt(3) + " L" + (1 + random.nextInt(numLecturers)) + "+" + random.nextInt(2));
+                break;
+            default:
+                delta.add("L " + (1 + random.nextInt(numLecturers)) + " 0 " + random.nextInt(4));
+                break;
+            }
+        }
+        return delta;
+    }
+}
@@ -1,9 +1,23 @@
-import networkFlow.Edge;
-import networkFlow.ResidualGraph;
-import networkFlow.Vertex;
+import networkFlow.ApproximateDinicSolver;
+import networkFlow.CutBounds;
+import networkFlow.CutCertificate;
+import networkFlow.FlowCheckpoint;
+import networkFlow.FlowGraph;
+import networkFlow.FlowPublisher;
+import networkFlow.FlowScenario;
+import networkFlow.FlowSensitivity;
+import networkFlow.FlowSnapshot;
+import networkFlow.FlowTopology;
 import networkFlow.Network;
+import networkFlow.MaxFlowSolver;
+import networkFlow.MaxFlowSolvers;
+import networkFlow.ParametricSweep;
+import networkFlow.SolveControl;
+import networkFlow.UniformCapSearch;
+import networkFlow.VertexReordering;
 import java.util.*;
 import java.io.*;
+import java.nio.file.*;
 
 /**
  * The Class FordFulk. Contains main part of the Ford-Fulkerson implementation
@@ -21,9 +35,140 @@ public class FordFulk {
      */
     private Network net;
 
-    private int numStudents;
-    private int numProjects;
-    private int numLecturers;
+    /**
+     * The instance read from file.
+     */
+    private AllocationInstance instance;
+
+    /**
+     * If true, students with the same SE flag and the same set of listed
+     * projects share one vertex in the network.
+     */
+    private boolean aggregate = false;
+
+    /**
+     * Number of student vertices in the network - one per student, or one per
+     * class of identical students when aggregating.
+     */
+    private int numStudentVertices;
+
+    /**
+     * The students represented by each student vertex, indexed from 1.
+     */
+    private int[][] vertexStudents;
+
+    /**
+     * The id of the edge from each project to its lecturer.
+     */
+    private int[] projectEdge;
+
+    /**
+     * The id of the edge from each lecturer to the sink.
+     */
+    private int[] lecturerEdge;
+
+    /**
+     * The vertex ordering the network is solved in: "none", "bfs" or "rcm".
+     */
+    private String ordering = "none";
+
+    /**
+     * The name of the max-flow engine to run, or "auto" to choose one from the
+     * shape of the network.
+     */
+    private String engine = MaxFlowSolvers.AUTO;
+
+    /**
+     * The fraction of the flow value by which an approximate solve may fall
+     * short of the maximum, or 0 to find a maximum flow.
+     */
+    private double epsilon;
+
+    /**
+     * The file the flow is checkpointed to while solving, or null.
+     */
+    private Path checkpointFile;
+
+    /**
+     * The time between checkpoints in seconds.
+     */
+    private long checkpointInterval = 60;
+
+    /**
+     * The checkpoint file to resume from, or null to start from zero flow.
+     */
+    private Path resumeFile;
+
+    /**
+     * Publishes snapshots of the project and lecturer loads while
+     * fordFulkerson runs, for other threads to read.
+     */
+    private final FlowPublisher snapshots = new FlowPublisher();
+
+    /**
+     * The time between snapshots in milliseconds, or 0 to publish none.
+     */
+    private long snapshotInterval;
+
+    /**
+     * The cache of solved instances, or null.
+     */
+    private AllocationCache cache;
+
+    /**
+     * The canonical form of the instance, found when there is a cache.
+     */
+    private AllocationCache.CanonicalForm canonicalForm;
+
+    /**
+     * The assignment found in the cache, or null if the instance has to be
+     * solved.
+     */
+    private int[] cachedAssignment;
+
+    /**
+     * The network fordFulkerson solved - net or its reordered copy.
+     */
+    private Network solveNet;
+
+    /**
+     * The reordering solveNet was built with, or null if it is net.
+     */
+    private VertexReordering reordering;
+
+    /**
+     * The upper bound the engine was given before solving.
+     */
+    private CutCertificate bound;
+
+    /**
+     * The cut proving the flow found by fordFulkerson is maximum or, if the
+     * solve was interrupted, the cheapest cut found bounding the maximum.
+     * Found when first needed.
+     */
+    private CutCertificate certificate;
+
+    /**
+     * True if fordFulkerson stopped as soon as the flow met the cut bound,
+     * without a final search for an augmenting path.
+     */
+    private boolean stoppedAtBound;
+
+    /**
+     * True if fordFulkerson was stopped by its time limit or cancelled.
+     */
+    private boolean interrupted;
+
+    /**
+     * True if an approximate fordFulkerson stopped short of a maximum flow.
+     */
+    private boolean approximate;
+
+    /**
+     * The most students any lecturer is assigned after balanceLecturerLoad,
+     * or -1 if it has not been called.
+     */
+    private int maximumLoad = -1;
 
     /**
      * Instantiates a new FordFulk object.
@@ -38,14 +183,145 @@ public class FordFulk {
         return this.net;
     }
 
+    /**
+     * Sets whether identical students are aggregated. Students with the same
+     * SE flag and the same set of listed projects are then represented by a
+     * single vertex whose source edge, and each of whose project edges, has
+     * capacity equal to the number of such students. The flow found is split
+     * back into individual assignments when results are printed.
+     *
+     * @param aggregate true to aggregate identical students
+     */
+    public void setAggregate(boolean aggregate) {
+        this.aggregate = aggregate;
+    }
+
+    /**
+     * Sets the vertex ordering used while solving. With "bfs" or "rcm" the
+     * network is relabelled in breadth-first or reverse Cuthill-McKee order
+     * before the Ford-Fulkerson algorithm is run, and the resulting flow is
+     * copied back so results are reported with the original labels.
+     *
+     * @param ordering "none", "bfs" or "rcm"
+     */
+    public void setOrdering(String ordering) {
+        if (!ordering.equals("none") && !ordering.equals("bfs") && !ordering.equals("rcm")) {
+            throw new IllegalArgumentException("Unknown vertex ordering: " + ordering);
+        }
+        this.ordering = ordering;
+    }
+
+    /**
+     * Sets the max-flow engine used by fordFulkerson. The name is one of
+     * those registered with MaxFlowSolvers, or "auto" to let the selector
+     * choose from the statistics of the network.
+     *
+     * @param engine the engine name or "auto"
+     */
+    public void setEngine(String engine) {
+        if (!engine.equals(MaxFlowSolvers.AUTO) && !MaxFlowSolvers.getNames().contains(engine)) {
+            throw new IllegalArgumentException("Unknown max-flow engine: " + engine);
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * Makes fordFulkerson stop as soon as the flow is provably within a
+     * factor 1 - epsilon of the maximum, using ApproximateDinicSolver in place
+     * of the engine.
+     *
+     * @param epsilon the fraction of the flow value the gap may be, above 0
+     *                and below 1
+     */
+    public void setApproximation(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("The approximation tolerance must be above 0 and below 1");
+        }
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Makes fordFulkerson save the flow to a checkpoint file at regular
+     * intervals while it runs, and once more if it is interrupted, so that a
+     * solve that is killed can be resumed with setResume.
+     *
+     * @param file the checkpoint file
+     */
+    public void setCheckpoint(String file) {
+        this.checkpointFile = Paths.get(file);
+    }
+
+    /**
+     * Sets the time between checkpoints.
+     *
+     * @param seconds the interval in seconds
+     */
+    public void setCheckpointInterval(long seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("The checkpoint interval must be positive");
+        }
+        this.checkpointInterval = seconds;
+    }
+
+    /**
+     * Makes fordFulkerson start from the flow saved in a checkpoint file
+     * rather than from zero flow. The file must have been written for the
+     * same instance, read with the same options.
+     *
+     * @param file the checkpoint file
+     */
+    public void setResume(String file) {
+        this.resumeFile = Paths.get(file);
+    }
+
+    /**
+     * Makes fordFulkerson publish a snapshot of the project and lecturer
+     * loads at regular intervals while it runs, and once more when it
+     * finishes, which other threads can read with getSnapshot without
+     * waiting for the solve.
+     *
+     * @param millis the time between snapshots in milliseconds
+     */
+    public void setSnapshotInterval(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("The snapshot interval must be positive");
+        }
+        this.snapshotInterval = millis;
+    }
+
+    /**
+     * Looks each instance read up in a cache of solved instances. On a hit
+     * no network is built and fordFulkerson only publishes a complete
+     * snapshot of the cached loads, if snapshots were asked for, so only
+     * printResults, saveState and getSnapshot may follow; a maximum
+     * assignment found by fordFulkerson is added to the cache. Must be
+     * called before the instance is read.
+     *
+     * @param cache the cache
+     */
+    public void setCache(AllocationCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns true if the assignment was found in the cache rather than
+     * solved.
+     *
+     * @return true, if the cache held the instance
+     */
+    public boolean isCached() {
+        return cachedAssignment != null;
+    }
+
     /**
      * Read in network from file. See assessed exercise specification for the
-     * file format.
+     * file format. A lecturer line may also give a lower quota before the
+     * capacity, as in the Part C format; the quota is kept in the instance
+     * for checkLowerQuotas, but the solve does not enforce it.
      */
     public void readNetworkFromFile() {
         FileReader fr = null;
         Scanner in = null;
-        boolean[] isSE;
         // open file with name given by filename
         try {
             try {
@@ -54,27 +330,17 @@ public class FordFulk {
 
                 // get number of students
                 String line = in.nextLine();
-                this.numStudents = Integer.parseInt(line);
+                int numStudents = Integer.parseInt(line);
                 // get number of projects
                 line = in.nextLine();
-                this.numProjects = Integer.parseInt(line);
+                int numProjects = Integer.parseInt(line);
                 line = in.nextLine();
                 // get number of lecturers
-                this.numLecturers = Integer.parseInt(line);
-
-                //calculate total vertices
-                int numTotalVertices = numStudents + numProjects + numLecturers + 2;
-
-                //initialise array to store what is SE
-                isSE = new boolean[numStudents + numProjects + 1];
+                int numLecturers = Integer.parseInt(line);
 
-                //we want to keep the index of the array the same as the label name for students and projects so set 0 (the source) to be false (not an SE student)
-                isSE[0] = false;
+                instance = new AllocationInstance(numStudents, numProjects, numLecturers);
 
-                // create new network with desired number of vertices
-                net = new Network(numTotalVertices);
-
-                // now add the edges between the (source and students) and (students and projects) without distinguishing between SE and non SE
+                // read each student's SE flag and listed projects
                 for(int i = 0; i < numStudents; i++) {
                     line = in.nextLine();
                     String[] tokens = line.split(" ");
@@ -82,85 +348,36 @@ public class FordFulk {
                     //get student label
                     int label = Integer.parseInt(tokens[0]);
 
-                    //set if student is SE
-                    isSE[label] = (tokens[1].equals("Y"))? true : false;
-
-                    //get student vertex
-                    Vertex student = net.getVertexByIndex(label);
-
-                    int j = 2;
-                    while (j < tokens.length) {
-                        // get label of project
-                        int projectLabel = Integer.parseInt(tokens[j++]) + numStudents;
-                        // get corresponding Vertex object
-                        Vertex project = net.getVertexByIndex(projectLabel);
-                        //get source
-                        Vertex source = net.getSource();
-
-                        //add edge from source to student
-                        net.addEdge(source, student, 1);
-                        // add edge (student, project) with capacity 1 to network
-                        net.addEdge(student, project, 1);
+                    int[] projects = new int[tokens.length - 2];
+                    for(int j = 2; j < tokens.length; j++) {
+                        projects[j - 2] = Integer.parseInt(tokens[j]);
                     }
-
+                    instance.setStudent(label, tokens[1].equals("Y"), projects);
                 }
-                //add edges between projects and lecturers
-                for(int i = numStudents; i < numStudents + numProjects; i++) {
+
+                // read each project's SE flag, lecturer and capacity
+                for(int i = 0; i < numProjects; i++) {
                     line = in.nextLine();
                     String[] tokens = line.split(" ");
                     //get project label
-                    int label = Integer.parseInt(tokens[0]) + numStudents;
-                    //store if project is SE
-                    isSE[label] = (tokens[1].equals("Y"))? true : false;
-
-                    //get project vertex
-                    Vertex project = net.getVertexByIndex(label);
-
-                    // get label of lecturer
-                    int lecturerLabel = Integer.parseInt(tokens[2]) + numStudents + numProjects;
-                    // get lecturer vertex
-                    Vertex lecturer = net.getVertexByIndex(lecturerLabel);
-                    //get capacity of project
-                    int capacity = Integer.parseInt(tokens[3]);
-
-
-                    // add edge (project, lecturer) with capacity of project to network
-                    net.addEdge(project, lecturer, capacity);
+                    int label = Integer.parseInt(tokens[0]);
+                    instance.setProject(label, tokens[1].equals("Y"), Integer.parseInt(tokens[2]), Integer.parseInt(tokens[3]));
                 }
 
-                //add edges from lecturers to target
+                // read each lecturer's capacity, or in the Part C format
+                // their lower quota and capacity
                 while (in.hasNextLine()) {
                     line = in.nextLine();
                     String[] tokens = line.split(" ");
 
                     // get lecturer label
-                    int label = Integer.parseInt(tokens[0]) + numStudents + numProjects;
-
-                    // get corresponding Vertex object
-                    Vertex lecturer = net.getVertexByIndex(label);
-
-                    // get capacity of lecturer
-                    int capacity = Integer.parseInt(tokens[1]);
-                    // get sink Vertex object
-                    Vertex sink = net.getSink();
-                    // add edge (lecturer, target) with capacity c to network
-                    net.addEdge(lecturer, sink, capacity);
-
-                }
-                //remove unwanted edges for illegal projects between SE students and non-SE projects
-                for(int i = 1; i < numStudents + 1; i++) {
-                    if(isSE[i]) {
-                        Vertex SEstudent = net.getVertexByIndex(i);
-                        for(int j = 0; j < net.getAdjList(SEstudent).size(); j++) {
-                            Vertex project = net.getAdjList(SEstudent).get(j);
-                            int projectLabel = project.getLabel();
-                            if(!isSE[projectLabel]) {
-                                Edge edgeToDelete = net.getAdjMatrixEntry(SEstudent, project);
-                                edgeToDelete.setCap(0); //effectively delete this edge by setting capacity to 0
-                            }
-                        }
+                    int label = Integer.parseInt(tokens[0]);
+                    if(tokens.length > 2) {
+                        instance.setLecturerLowerQuota(label, Integer.parseInt(tokens[1]));
+                        instance.setLecturerCapacity(label, Integer.parseInt(tokens[2]));
+                    } else {
+                        instance.setLecturerCapacity(label, Integer.parseInt(tokens[1]));
                     }
-
                 }
 
             } finally {
@@ -176,26 +393,767 @@ public class FordFulk {
             System.err.println(e);
             System.exit(1);
         }
+
+        if(!findCachedResult()) {
+            buildNetwork();
+        }
+    }
+
+    /**
+     * Looks the instance up in the cache, if there is one.
+     *
+     * @return true, if the cache held the instance, whose assignment is then
+     *         in cachedAssignment
+     */
+    private boolean findCachedResult() {
+        if(cache == null) {
+            return false;
+        }
+        canonicalForm = AllocationCache.canonicalise(instance);
+        try {
+            cachedAssignment = cache.get(canonicalForm);
+        } catch (IOException e) {
+            System.err.println("IO error:");
+            System.err.println(e);
+            System.exit(1);
+        }
+        return cachedAssignment != null;
+    }
+
+    /**
+     * Reads a state saved by saveState from the input file, in place of an
+     * instance, applies the changes in a delta file to it and builds the
+     * network for the changed instance, carrying the repaired assignment as
+     * its flow. The saved state is read without parsing and the assignment
+     * is only repaired where the changes broke it, so fordFulkerson starts
+     * from a flow that is already maximum outside the changed part of the
+     * instance.
+     *
+     * @param deltaFilename the name of the delta file
+     */
+    public void readStateFromFile(String deltaFilename) {
+        AllocationState state = null;
+        AllocationDelta delta = null;
+        try {
+            state = AllocationState.read(Paths.get(filename));
+            delta = AllocationDelta.read(deltaFilename);
+        } catch (IOException e) {
+            System.err.println("IO error:");
+            System.err.println(e);
+            System.exit(1);
+        }
+        state = delta.apply(state);
+        instance = state.getInstance();
+        if(findCachedResult()) {
+            return;
+        }
+        buildNetwork();
+        loadAssignment(state.getAssignment());
+    }
+
+    /**
+     * Saves the instance and the assignment found by fordFulkerson to a
+     * state file, from which a later run can apply a delta with
+     * readStateFromFile.
+     *
+     * @param stateFilename the name of the state file
+     */
+    public void saveState(String stateFilename) {
+        try {
+            new AllocationState(instance, getAssignment()).write(Paths.get(stateFilename));
+        } catch (IOException e) {
+            System.err.println("IO error:");
+            System.err.println(e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Sets the flow of net to the given assignment: one unit along the
+     * source, project, lecturer and sink edges of each assigned student,
+     * using the first of its student vertex's edges to the project with
+     * room left.
+     *
+     * @param assignment the project assigned to each student, or 0, which
+     *                   must respect every list, SE rule and capacity
+     */
+    private void loadAssignment(int[] assignment) {
+        for(int v = 1; v <= numStudentVertices; v++) {
+            int sourceEdge = -1;
+            for(int i = net.getArcStart(v); i < net.getArcEnd(v); i++) {
+                int arc = net.getArc(i);
+                if(!Network.isForwardArc(arc) && net.arcHead(arc) == net.getSourceLabel()) {
+                    sourceEdge = Network.arcEdge(arc);
+                }
+            }
+            for(int student : vertexStudents[v]) {
+                int project = assignment[student];
+                if(project == 0) {
+                    continue;
+                }
+                int edge = -1;
+                for(int i = net.getArcStart(v); i < net.getArcEnd(v) && edge == -1; i++) {
+                    int arc = net.getArc(i);
+                    if(Network.isForwardArc(arc) && net.arcHead(arc) == projectVertex(project) && net.residualCapacity(arc) > 0) {
+                        edge = Network.arcEdge(arc);
+                    }
+                }
+                if(edge == -1) {
+                    throw new IllegalArgumentException("Student " + student + " cannot be assigned project " + project);
+                }
+                net.setEdgeFlow(sourceEdge, net.getEdgeFlow(sourceEdge) + 1);
+                net.setEdgeFlow(edge, net.getEdgeFlow(edge) + 1);
+                int lecturer = instance.getProjectLecturer(project);
+                net.setEdgeFlow(projectEdge[project], net.getEdgeFlow(projectEdge[project]) + 1);
+                net.setEdgeFlow(lecturerEdge[lecturer], net.getEdgeFlow(lecturerEdge[lecturer]) + 1);
+            }
+        }
+    }
+
+    /**
+     * Builds the network for the instance: source to students to projects to
+     * lecturers to sink. An edge from an SE student to a non-SE project is
+     * kept with capacity 0, which effectively deletes it. A project listed
+     * twice by a student gets one edge, so that each student and project
+     * share at most one edge.
+     */
+    private void buildNetwork() {
+        int numStudents = instance.getNumStudents();
+        int numProjects = instance.getNumProjects();
+        int numLecturers = instance.getNumLecturers();
+
+        // group the students that get a vertex each
+        List<int[]> groups = new ArrayList<>();
+        if (aggregate) {
+            Map<String, List<Integer>> classes = new LinkedHashMap<>();
+            for(int student = 1; student <= numStudents; student++) {
+                int[] projects = distinctSorted(instance.getStudentProjects(student));
+                String key = (instance.isStudentSE(student)? "Y" : "N") + Arrays.toString(projects);
+                classes.computeIfAbsent(key, k -> new ArrayList<>()).add(student);
+            }
+            for(List<Integer> members : classes.values()) {
+                groups.add(members.stream().mapToInt(Integer::intValue).toArray());
+            }
+        } else {
+            for(int student = 1; student <= numStudents; student++) {
+                groups.add(new int[] {student});
+            }
+        }
+
+        numStudentVertices = groups.size();
+        vertexStudents = new int[numStudentVertices + 1][];
+        projectEdge = new int[numProjects + 1];
+        lecturerEdge = new int[numLecturers + 1];
+
+        // create new network with desired number of vertices
+        net = new Network(numStudentVertices + numProjects + numLecturers + 2);
+
+        // add the edges from the source to each student vertex and from there to its projects
+        for(int v = 1; v <= numStudentVertices; v++) {
+            int[] members = groups.get(v - 1);
+            vertexStudents[v] = members;
+            int student = members[0];
+            int size = members.length;
+            int[] projects = aggregate? distinctSorted(instance.getStudentProjects(student)) : withoutRepeats(instance.getStudentProjects(student));
+
+            net.addEdge(net.getSourceLabel(), v, size);
+            for(int project : projects) {
+                int capacity = instance.isAllowed(student, project)? size : 0;
+                net.addEdge(v, projectVertex(project), capacity);
+            }
+        }
+
+        //add edges between projects and lecturers
+        for(int project = 1; project <= numProjects; project++) {
+            projectEdge[project] = net.addEdge(projectVertex(project), lecturerVertex(instance.getProjectLecturer(project)), instance.getProjectCapacity(project));
+        }
+
+        //add edges from lecturers to target
+        for(int lecturer = 1; lecturer <= numLecturers; lecturer++) {
+            lecturerEdge[lecturer] = net.addEdge(lecturerVertex(lecturer), net.getSinkLabel(), instance.getLecturerCapacity(lecturer));
+        }
+    }
+
+    /**
+     * Gets the label of a project's vertex.
+     *
+     * @param project the project number
+     * @return the vertex label
+     */
+    private int projectVertex(int project) {
+        return numStudentVertices + project;
+    }
+
+    /**
+     * Gets the label of a lecturer's vertex.
+     *
+     * @param lecturer the lecturer number
+     * @return the vertex label
+     */
+    private int lecturerVertex(int lecturer) {
+        return numStudentVertices + instance.getNumProjects() + lecturer;
+    }
+
+    /**
+     * Returns the values of an array without repeats, each where it first
+     * appears, so that a student who lists a project twice gets one edge to
+     * it rather than two parallel edges. Lists are short, so each value is
+     * checked against those before it.
+     *
+     * @param values the values
+     * @return values itself if it has no repeats, or else a new array
+     */
+    private static int[] withoutRepeats(int[] values) {
+        int[] kept = null;
+        int count = 0;
+        for(int i = 0; i < values.length; i++) {
+            boolean repeat = false;
+            for(int j = 0; j < i && !repeat; j++) {
+                repeat = (values[j] == values[i]);
+            }
+            if(repeat && kept == null) {
+                kept = Arrays.copyOf(values, values.length);
+                count = i;
+            } else if(!repeat && kept != null) {
+                kept[count++] = values[i];
+            }
+        }
+        return (kept == null)? values : Arrays.copyOf(kept, count);
+    }
+
+    /**
+     * Returns the distinct values of an array in increasing order.
+     *
+     * @param values the values
+     * @return a new sorted array without duplicates
+     */
+    private static int[] distinctSorted(int[] values) {
+        return Arrays.stream(values).distinct().sorted().toArray();
     }
 
     /**
-     * Executes Ford-Fulkerson algorithm on the constructed network net.
+     * Executes a maximum flow engine on the constructed network net - the
+     * Ford-Fulkerson algorithm or one of its faster relatives. The cheapest
+     * layered cut is found first and the engine stops as soon as the flow
+     * reaches its capacity - commonly the number of students or the total
+     * lecturer capacity - as no larger flow can exist.
      */
     public void fordFulkerson() {
-        while(true){
+        fordFulkerson(new SolveControl());
+    }
+
+    /**
+     * Executes a maximum flow engine on the constructed network net, steered
+     * by control, which may carry a time limit, a progress listener or be
+     * cancelled from another thread. With a time limit only the cuts around
+     * the source and sink bound the solve in advance, so the engine starts at
+     * once. If the solve is interrupted the network keeps the valid flow
+     * found so far, isOptimal returns false and getUpperBound bounds how far
+     * that flow is from a maximum. If the instance was found in the cache
+     * there is nothing to solve, and the final snapshot is of the cached
+     * assignment; otherwise a maximum assignment is added to the cache.
+     *
+     * @param control the settings steering the solve
+     */
+    public void fordFulkerson(SolveControl control) {
+        if (cachedAssignment != null) {
+            if (snapshotInterval > 0) {
+                publishCachedLoads();
+            }
+            return;
+        }
+        VertexReordering reordering = null;
+        if (ordering.equals("bfs")) {
+            reordering = VertexReordering.breadthFirst(net);
+        } else if (ordering.equals("rcm")) {
+            reordering = VertexReordering.reverseCuthillMcKee(net);
+        }
+        Network solveNet = (reordering != null)? reordering.getNetwork() : net;
+        prepareCheckpoints(solveNet, control);
+        int[] loadEdges = (snapshotInterval > 0)? getLoadEdges(reordering) : null;
+        if (loadEdges != null) {
+            control.addProgressListener((value, upperBound) -> snapshots.publish(solveNet, loadEdges, value, false),
+                    snapshotInterval);
+        }
+
+        // with a time limit there is no time for a scan of the whole network
+        bound = control.hasTimeLimit()? CutBounds.cheapestTerminalCut(solveNet) : CutBounds.cheapestLayerCut(solveNet);
+        control.setUpperBound(bound.getCapacity());
+
+        // Main rejects this before reading; this guards other callers
+        if (epsilon > 0 && !engine.equals(MaxFlowSolvers.AUTO)) {
+            throw new IllegalArgumentException("An approximate solve uses its own engine, so cannot use engine " + engine);
+        }
+        MaxFlowSolver solver = (epsilon > 0)? new ApproximateDinicSolver(epsilon) : MaxFlowSolvers.create(engine, solveNet);
+        int value = solver.solve(solveNet, control);
+        if (loadEdges != null) {
+            snapshots.publish(solveNet, loadEdges, value, true);
+        }
+        stoppedAtBound = (value == bound.getCapacity());
+        interrupted = control.isInterrupted();
+        if (interrupted && checkpointFile != null) {
+            writeCheckpoint(solveNet);
+        }
+        certificate = stoppedAtBound? bound : null;
+        approximate = false;
+        if (!stoppedAtBound && solver instanceof ApproximateDinicSolver) {
+            CutCertificate cut = ((ApproximateDinicSolver) solver).getCertificate();
+            if (cut != null) {
+                approximate = (cut.getCapacity() > value);
+                certificate = cut;
+            }
+        }
+        this.solveNet = solveNet;
+        this.reordering = reordering;
+
+        if(reordering != null) {
+            reordering.copyFlowToOriginal();
+        }
+
+        if(cache != null && isOptimal()) {
+            try {
+                cache.put(canonicalForm, getAssignment());
+            } catch (IOException e) {
+                System.err.println("IO error:");
+                System.err.println(e);
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Publishes a complete snapshot of the loads of the cached assignment,
+     * laid out as the flows of the load edges would be.
+     */
+    private void publishCachedLoads() {
+        int numProjects = instance.getNumProjects();
+        int[] loads = new int[numProjects + instance.getNumLecturers()];
+        int assigned = 0;
+        for(int student = 1; student <= instance.getNumStudents(); student++) {
+            int project = cachedAssignment[student];
+            if(project != 0) {
+                loads[project - 1]++;
+                loads[numProjects + instance.getProjectLecturer(project) - 1]++;
+                assigned++;
+            }
+        }
+        snapshots.publish(loads, assigned, true);
+    }
+
+    /**
+     * Lists the edges whose flow gives the loads, in the numbering of the
+     * network being solved: the edge of each project, then the edge of each
+     * lecturer.
+     *
+     * @param reordering the reordering the network is solved in, or null
+     * @return the edge ids
+     */
+    private int[] getLoadEdges(VertexReordering reordering) {
+        int numProjects = instance.getNumProjects();
+        int[] edges = new int[numProjects + instance.getNumLecturers()];
+        for(int project = 1; project <= numProjects; project++) {
+            edges[project - 1] = projectEdge[project];
+        }
+        for(int lecturer = 1; lecturer <= instance.getNumLecturers(); lecturer++) {
+            edges[numProjects + lecturer - 1] = lecturerEdge[lecturer];
+        }
+        if(reordering != null) {
+            for(int i = 0; i < edges.length; i++) {
+                edges[i] = reordering.getNewEdge(edges[i]);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Gets the latest snapshot of the loads published by fordFulkerson. May
+     * be called from any thread, including while fordFulkerson is running on
+     * another; read the loads from it with getProjectLoad and
+     * getLecturerLoad.
+     *
+     * @return the snapshot, or null if none has been published
+     */
+    public FlowSnapshot getSnapshot() {
+        return snapshots.getSnapshot();
+    }
+
+    /**
+     * Gets the number of students assigned to a project in a snapshot.
+     *
+     * @param snapshot a snapshot from getSnapshot
+     * @param project the project number, from 1
+     * @return the number of students assigned
+     */
+    public int getProjectLoad(FlowSnapshot snapshot, int project) {
+        return snapshot.getFlow(project - 1);
+    }
+
+    /**
+     * Gets the number of students assigned to a lecturer in a snapshot.
+     *
+     * @param snapshot a snapshot from getSnapshot
+     * @param lecturer the lecturer number, from 1
+     * @return the number of students assigned
+     */
+    public int getLecturerLoad(FlowSnapshot snapshot, int lecturer) {
+        return snapshot.getFlow(instance.getNumProjects() + lecturer - 1);
+    }
+
+    /**
+     * Spreads the students as evenly as possible across the lecturers while
+     * keeping the number assigned maximum. Finds the smallest k such that
+     * capping every lecturer at k students still allows a maximum flow, and
+     * leaves the network carrying such a flow, with the lecturer capacities
+     * unchanged. Must be called after a complete fordFulkerson.
+     */
+    public void balanceLecturerLoad() {
+        if(solveNet == null || !isOptimal()) {
+            throw new IllegalStateException("Balancing needs the maximum flow from a complete fordFulkerson");
+        }
+        int[] edges = new int[instance.getNumLecturers()];
+        for(int lecturer = 1; lecturer <= instance.getNumLecturers(); lecturer++) {
+            int edge = lecturerEdge[lecturer];
+            edges[lecturer - 1] = (reordering != null)? reordering.getNewEdge(edge) : edge;
+        }
+        maximumLoad = UniformCapSearch.minimumCap(solveNet, edges, MaxFlowSolvers.create(engine, solveNet));
+        if(reordering != null) {
+            reordering.copyFlowToOriginal();
+        }
+    }
+
+    /**
+     * Print, before solving, each lecturer whose capacity no assignment can
+     * fill, because fewer students may take the lecturer's projects or the
+     * projects have fewer places those students can fill than the capacity.
+     * Only the instance is read, so this costs one pass over the preference
+     * lists. Lower quotas are checked by checkLowerQuotas; if the instance
+     * has any, a note says the solve does not enforce them.
+     */
+    public void printSupply() {
+        LecturerSupply supply = new LecturerSupply(instance);
+        int[] capacity = new int[instance.getNumLecturers() + 1];
+        for(int lecturer = 1; lecturer <= instance.getNumLecturers(); lecturer++) {
+            capacity[lecturer] = instance.getLecturerCapacity(lecturer);
+        }
+        List<Integer> shortfalls = supply.findShortfalls(capacity);
+        for(int lecturer : shortfalls) {
+            long bound = supply.getBound(lecturer);
+            System.out.printf("Lecturer %d with capacity %d can be assigned at most %d student%s, as %s%n",
+                    lecturer,
+                    capacity[lecturer],
+                    bound,
+                    plural((int) bound),
+                    describeBound(supply, lecturer)
+            );
+        }
+        System.out.printf("%d of %d lecturer%s cannot be filled%n",
+                shortfalls.size(),
+                instance.getNumLecturers(),
+                plural(instance.getNumLecturers())
+        );
+        if(instance.hasLowerQuotas()) {
+            System.out.println("Every lower quota is within its lecturer's bound, but the solve does not enforce lower quotas");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Rejects, before solving, an instance in which some lecturer's lower
+     * quota is above the most students any assignment can give that
+     * lecturer. Passing this check does not make the instance feasible, as
+     * the bound ignores competition between lecturers for the same students.
+     *
+     * @throws IllegalArgumentException naming every lecturer whose lower
+     *                                  quota cannot be met
+     */
+    public void checkLowerQuotas() {
+        if(!instance.hasLowerQuotas()) {
+            return;
+        }
+        LecturerSupply supply = new LecturerSupply(instance);
+        List<Integer> shortfalls = supply.findLowerQuotaShortfalls();
+        if(shortfalls.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder();
+        message.append(String.format("The instance is infeasible, as %d of %d lecturer%s cannot meet their lower quota:",
+                shortfalls.size(),
+                instance.getNumLecturers(),
+                plural(instance.getNumLecturers())));
+        for(int lecturer : shortfalls) {
+            long bound = supply.getBound(lecturer);
+            message.append(String.format("%nLecturer %d with lower quota %d can be assigned at most %d student%s, as %s",
+                    lecturer,
+                    instance.getLecturerLowerQuota(lecturer),
+                    bound,
+                    plural((int) bound),
+                    describeBound(supply, lecturer)));
+        }
+        throw new IllegalArgumentException(message.toString());
+    }
+
+    /**
+     * Describes which limit gives a lecturer's bound.
+     *
+     * @param supply the supplies of the instance
+     * @param lecturer the lecturer number
+     * @return the reason for the bound, to follow "as"
+     */
+    private String describeBound(LecturerSupply supply, int lecturer) {
+        long bound = supply.getBound(lecturer);
+        if(supply.getSupply(lecturer) == bound) {
+            return supply.getSupply(lecturer) + " student" + plural(supply.getSupply(lecturer)) + " may take their projects";
+        }
+        if(supply.getPlaces(lecturer) == bound) {
+            return "their projects have " + supply.getPlaces(lecturer) + " place" + plural((int) supply.getPlaces(lecturer)) + " those students can fill";
+        }
+        return "their capacity is " + instance.getLecturerCapacity(lecturer);
+    }
+
+    /**
+     * Print the lecturer load found by balanceLecturerLoad.
+     */
+    public void printBalance() {
+        System.out.printf("No lecturer is assigned more than %d student%s in a maximum assignment%n",
+                maximumLoad,
+                plural(maximumLoad)
+        );
+    }
+
+    /**
+     * Runs a parametric sweep read from file, printing the number of students
+     * assigned after each step. Each line of the file is one step and lists
+     * the capacity changes made together at that step, separated by spaces:
+     * Lx=c sets lecturer x's capacity to c, Lx+k raises it by k, and L*+k
+     * raises every lecturer's capacity by k; Px=c, Px+k and P*+k do the same
+     * for projects. Capacities may only go up. Each step starts from the
+     * maximum flow of the step before, so the whole sweep costs little more
+     * than one solve. Must be called after fordFulkerson; the network is left
+     * with the capacities and flow of the last step.
+     *
+     * @param sweepFilename the name of the sweep file
+     */
+    public void sweep(String sweepFilename) {
+        if(solveNet == null) {
+            throw new IllegalStateException("fordFulkerson must be called before sweep");
+        }
+        List<String> steps = readChangeLines(sweepFilename);
+
+        ParametricSweep sweep = new ParametricSweep(solveNet, MaxFlowSolvers.create(engine, solveNet));
+        int value = sweep.getValues().get(0);
+        System.out.printf("Sweep step 0 (as read): %d student%s assigned%n", value, plural(value));
+        for(int step = 1; step <= steps.size(); step++) {
+            Map<Integer, Integer> changes = parseCapacityChanges(steps.get(step - 1), true, "sweep");
+            int[] edges = new int[changes.size()];
+            int[] capacities = new int[changes.size()];
+            int i = 0;
+            for(Map.Entry<Integer, Integer> change : changes.entrySet()) {
+                edges[i] = (reordering != null)? reordering.getNewEdge(change.getKey()) : change.getKey();
+                capacities[i++] = change.getValue();
+            }
+            value = sweep.raiseCapacities(edges, capacities);
+            if(reordering != null) {
+                for(Map.Entry<Integer, Integer> change : changes.entrySet()) {
+                    net.setEdgeCapacity(change.getKey(), change.getValue());
+                }
+            }
+            System.out.printf("Sweep step %d (%s): %d student%s assigned%n", step, steps.get(step - 1), value, plural(value));
+        }
+
+        if(reordering != null) {
+            reordering.copyFlowToOriginal();
+        }
+    }
 
-            ResidualGraph residualGraph = new ResidualGraph(net);
+    /**
+     * Runs what-if scenarios read from file, printing the number of students
+     * assigned in each. Each line of the file is one scenario, written as a
+     * sweep step but with capacities also allowed to go down: Lx-k lowers
+     * lecturer x's capacity by k, and likewise L*-k, Px-k and P*-k. The
+     * scenarios share one immutable copy of the network's structure and are
+     * solved in parallel, each keeping only its own flow and changed
+     * capacities.
+     *
+     * @param scenarioFilename the name of the scenario file
+     * @param threads the number of scenarios to solve at once
+     */
+    public void runScenarios(String scenarioFilename, int threads) {
+        List<String> lines = readChangeLines(scenarioFilename);
+        FlowTopology topology = new FlowTopology(net);
+        List<FlowScenario> scenarios = new ArrayList<>();
+        for(String line : lines) {
+            FlowScenario scenario = new FlowScenario(topology);
+            for(Map.Entry<Integer, Integer> change : parseCapacityChanges(line, false, "scenario").entrySet()) {
+                scenario.setEdgeCapacity(change.getKey(), change.getValue());
+            }
+            scenarios.add(scenario);
+        }
+
+        int[] values = FlowScenario.solveAll(scenarios, engine, threads);
+        for(int i = 0; i < values.length; i++) {
+            System.out.printf("Scenario %d (%s): %d student%s assigned%n", i + 1, lines.get(i), values[i], plural(values[i]));
+        }
+    }
 
-            LinkedList<Edge> augmentingPath = residualGraph.findAugmentingPath();
+    /**
+     * Reads the non-blank lines of a sweep or scenario file.
+     *
+     * @param filename the name of the file
+     * @return the lines, trimmed
+     */
+    private List<String> readChangeLines(String filename) {
+        List<String> lines = new ArrayList<>();
+        try {
+            try (BufferedReader in = new BufferedReader(new FileReader(filename))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if(!line.trim().isEmpty()) {
+                        lines.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("IO error:");
+            System.err.println(e);
+            System.exit(1);
+        }
+        return lines;
+    }
+
+    /**
+     * Parses one line of a sweep or scenario file into the new capacity of
+     * each edge it changes, starting from the capacities in net, using the
+     * parser shared with delta files. Changes to the same edge on one line
+     * accumulate.
+     *
+     * @param line the line
+     * @param increasesOnly true if no capacity may go down
+     * @param what "sweep" or "scenario", for error messages
+     * @return the new capacity of each changed edge, keyed by edge id in net
+     */
+    private Map<Integer, Integer> parseCapacityChanges(String line, boolean increasesOnly, String what) {
+        Map<Integer, Integer> changes = new LinkedHashMap<>();
+        AllocationDelta.applyCapacityChanges(line, lecturerEdge.length - 1, projectEdge.length - 1, increasesOnly, what,
+                new AllocationDelta.Capacities() {
+                    @Override
+                    public int get(boolean lecturer, int x) {
+                        int edge = lecturer? lecturerEdge[x] : projectEdge[x];
+                        return changes.getOrDefault(edge, net.getEdgeCapacity(edge));
+                    }
+
+                    @Override
+                    public void set(boolean lecturer, int x, int capacity) {
+                        changes.put(lecturer? lecturerEdge[x] : projectEdge[x], capacity);
+                    }
+                });
+        return changes;
+    }
+
+    /**
+     * Puts back the flow saved in the resume file, if there is one, and sets
+     * up regular checkpoints of graph on control, if asked for.
+     *
+     * @param graph the network about to be solved
+     * @param control the settings steering the solve
+     */
+    private void prepareCheckpoints(FlowGraph graph, SolveControl control) {
+        if (resumeFile != null) {
+            try {
+                FlowCheckpoint.read(graph, resumeFile);
+            } catch (IOException e) {
+                System.err.println("IO error:");
+                System.err.println(e);
+                System.exit(1);
+            }
+        }
+        if (checkpointFile != null) {
+            control.addProgressListener((value, upperBound) -> writeCheckpoint(graph), checkpointInterval * 1000);
+        }
+    }
+
+    /**
+     * Saves the flow of graph to the checkpoint file. A failed write is
+     * reported but does not stop the solve.
+     *
+     * @param graph the network being solved
+     */
+    private void writeCheckpoint(FlowGraph graph) {
+        try {
+            FlowCheckpoint.write(graph, checkpointFile);
+        } catch (IOException e) {
+            System.err.println("IO error:");
+            System.err.println(e);
+        }
+    }
 
-            if(augmentingPath != null) {
-                net.augmentPath(augmentingPath);
+    /**
+     * Finds the lecturers the assignment gives fewer students than their
+     * lower quota. The solve does not enforce lower quotas, so an instance
+     * that passes checkLowerQuotas may still be left with some.
+     *
+     * @return the lecturers below their lower quota, in increasing order
+     */
+    public List<Integer> getMissedLowerQuotas() {
+        List<Integer> missed = new ArrayList<>();
+        if(!instance.hasLowerQuotas()) {
+            return missed;
+        }
+        int[] assignment = getAssignment();
+        int[] lecturerLoad = new int[instance.getNumLecturers() + 1];
+        for(int student = 1; student <= instance.getNumStudents(); student++) {
+            if(assignment[student] != 0) {
+                lecturerLoad[instance.getProjectLecturer(assignment[student])]++;
             }
+        }
+        for(int lecturer = 1; lecturer <= instance.getNumLecturers(); lecturer++) {
+            if(lecturerLoad[lecturer] < instance.getLecturerLowerQuota(lecturer)) {
+                missed.add(lecturer);
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Returns true if the flow found by fordFulkerson is known to be a
+     * maximum flow, which is the case unless the solve was interrupted or
+     * stopped within its approximation tolerance.
+     *
+     * @return true, if the flow is maximum
+     */
+    public boolean isOptimal() {
+        return !interrupted && !approximate;
+    }
+
+    /**
+     * Gets the best known upper bound on the maximum flow, which equals the
+     * flow when isOptimal returns true. After an interrupted solve this costs
+     * a few scans of the network, so it is not paid within the time limit;
+     * after an approximate one it is the cut that stopped the solve.
+     *
+     * @return the upper bound
+     */
+    public long getUpperBound() {
+        return getCertificate().getCapacity();
+    }
 
-            else {
-                break;
+    /**
+     * Gets the cut bounding the maximum flow, finding it on first use. After
+     * a complete solve this is the set reachable in the residual graph; after
+     * an interrupted one it is the cheaper of the bound the engine was given
+     * and the cheapest layered cut of the residual graph.
+     *
+     * @return the cut
+     */
+    private CutCertificate getCertificate() {
+        if(certificate == null) {
+            if(interrupted) {
+                CutCertificate residualBound = CutBounds.cheapestResidualLayerCut(solveNet);
+                certificate = (residualBound.getCapacity() < bound.getCapacity())? residualBound : bound;
+            } else {
+                certificate = CutCertificate.residualCut(solveNet);
             }
         }
+        return certificate;
     }
 
     /**
@@ -211,74 +1169,168 @@ public class FordFulk {
     /**
      * Gets if an s should be added to student or not depending if there is one student or not
      *
-     * @param edge
+     * @param count the number of students
      * @return character to add to end of student
      */
-    private String edgeToString(Edge edge) {
-        if(edge.getFlow() == 1)
+    private String plural(int count) {
+        if(count == 1)
             return "";
         else
             return "s";
     }
 
     /**
-     * Print the results of the execution of the Ford-Fulkerson algorithm.
+     * Works out the project assigned to each student from the flow. Each
+     * student vertex hands the flow on each of its project edges to that many
+     * of the students it represents, in order. If the instance was found in
+     * the cache, this is the cached assignment.
+     *
+     * @return the project assigned to each student, or 0 if unassigned
+     */
+    private int[] getAssignment() {
+        if(cachedAssignment != null) {
+            return cachedAssignment;
+        }
+        int[] assignment = new int[instance.getNumStudents() + 1];
+        for(int v = 1; v <= numStudentVertices; v++) {
+            int[] members = vertexStudents[v];
+            int next = 0;
+            for(int i = net.getArcStart(v); i < net.getArcEnd(v) && next < members.length; i++) {
+                int arc = net.getArc(i);
+                if(!Network.isForwardArc(arc)) {
+                    continue;
+                }
+                int edge = Network.arcEdge(arc);
+                int project = net.getEdgeHead(edge) - numStudentVertices;
+                for(int k = 0; k < net.getEdgeFlow(edge) && next < members.length; k++) {
+                    assignment[members[next++]] = project;
+                }
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Print the results of the execution of the Ford-Fulkerson algorithm. The
+     * loads are counted from the assignment, so that a cached assignment
+     * needs no network. A lecturer assigned fewer students than its lower
+     * quota is marked, as the solve does not enforce lower quotas.
      */
     public void printResults() {
-        if(net.isFlow()){
-            //looping through all vertices in the graph except source and sink
-            for(int vertexLabel = 1; vertexLabel < net.getNumVertices() - 1; vertexLabel++) {
-
-                Vertex sourceVertex = net.getVertexByIndex(vertexLabel);
-                LinkedList<Vertex> adjacentVertices = net.getAdjList(sourceVertex);
-
-                if(vertexLabel <= this.numStudents) {
-                    boolean studentProjectAssign = false;
-                    for(int j = 0; j < adjacentVertices.size(); j++) {
-                        Vertex adjacentVertex = adjacentVertices.get(j);
-                        if(net.getAdjMatrixEntry(sourceVertex, adjacentVertex).getFlow() == 1) {
-                            System.out.printf("Student %d is assigned to project %d%n",
-                                    sourceVertex.getLabel(),
-                                    adjacentVertex.getLabel() - this.numStudents
-                            );
-                            studentProjectAssign = true;
-                            break;
-                        }
-                    }
-                    if(!studentProjectAssign) { //could replace with if j is at the end of range in for loop
-                        System.out.printf("Student %d is unassigned%n",
-                                sourceVertex.getLabel()
-                        );
-                    }
+        if(cachedAssignment != null || net.isFlow()){
+            int[] assignment = getAssignment();
+            int[] projectLoad = new int[instance.getNumProjects() + 1];
+            int[] lecturerLoad = new int[instance.getNumLecturers() + 1];
+            for(int student = 1; student <= instance.getNumStudents(); student++) {
+                if(assignment[student] != 0) {
+                    projectLoad[assignment[student]]++;
+                    lecturerLoad[instance.getProjectLecturer(assignment[student])]++;
                 }
+            }
 
-                else  {
-                    Vertex adjacentVertex = adjacentVertices.get(0);
-                    Edge edge = net.getAdjMatrixEntry(sourceVertex, adjacentVertex);
-                    if(vertexLabel <= this.numProjects + this.numStudents) {
-
-                        System.out.printf("Project %d with capacity %d is assigned %d student%s%n",
-                                sourceVertex.getLabel() - numStudents,
-                                edge.getCap(),
-                                edge.getFlow(),
-                                edgeToString(edge)
-                        );
-                    }
-                    else {
-                        System.out.printf("Lecturer %d with capacity %d is assigned %d student%s%n",
-                                sourceVertex.getLabel() - numStudents - numProjects,
-                                edge.getCap(),
-                                edge.getFlow(),
-                                edgeToString(edge)
-                        );
-                    }
+            for(int student = 1; student <= instance.getNumStudents(); student++) {
+                if(assignment[student] != 0) {
+                    System.out.printf("Student %d is assigned to project %d%n", student, assignment[student]);
+                } else {
+                    System.out.printf("Student %d is unassigned%n", student);
                 }
-                if(vertexLabel == this.numStudents || vertexLabel == this.numProjects + this.numStudents || vertexLabel == this.numProjects + this.numStudents + this.numLecturers)
-                    System.out.println();
+            }
+            System.out.println();
+
+            for(int project = 1; project <= instance.getNumProjects(); project++) {
+                System.out.printf("Project %d with capacity %d is assigned %d student%s%n",
+                        project,
+                        instance.getProjectCapacity(project),
+                        projectLoad[project],
+                        plural(projectLoad[project])
+                );
+            }
+            System.out.println();
 
+            for(int lecturer = 1; lecturer <= instance.getNumLecturers(); lecturer++) {
+                int lowerQuota = instance.getLecturerLowerQuota(lecturer);
+                System.out.printf("Lecturer %d with capacity %d is assigned %d student%s%s%n",
+                        lecturer,
+                        instance.getLecturerCapacity(lecturer),
+                        lecturerLoad[lecturer],
+                        plural(lecturerLoad[lecturer]),
+                        (lecturerLoad[lecturer] < lowerQuota)? ", below its lower quota of " + lowerQuota : ""
+                );
             }
+            System.out.println();
         } else {
             System.out.println("The assignment is not a valid flow");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Print the cut that proves the flow found is maximum: a flow whose value
+     * equals the capacity of some cut cannot be increased. If the solve was
+     * interrupted or approximate, print instead the cut bounding how far the
+     * flow is from a maximum. Must be called after fordFulkerson.
+     */
+    public void printCertificate() {
+        CutCertificate cut = getCertificate();
+        if(!isOptimal()) {
+            System.out.printf("The solve %s: the flow of %d is within %d of the maximum, which is at most the capacity %d of the cut around the %s%n",
+                    interrupted? "was interrupted" : "stopped within its tolerance",
+                    getFlow(),
+                    cut.getCapacity() - getFlow(),
+                    cut.getCapacity(),
+                    cut.getDescription()
+            );
+            return;
+        }
+        System.out.printf("The maximum flow of %d equals the capacity %d of the cut around the %s%n",
+                getFlow(),
+                cut.getCapacity(),
+                cut.getDescription()
+        );
+        if(stoppedAtBound) {
+            System.out.println("The solve stopped at this bound without a final search");
+        }
+    }
+
+    /**
+     * Print, for every student and every project they listed, whether the
+     * student is assigned to that project in every, some or no maximum
+     * assignment. Must be called after fordFulkerson has found a maximum
+     * flow, as a partial flow would be classified as if it were one, and
+     * needs one vertex per student, so cannot be used when aggregating.
+     */
+    public void printSensitivity() {
+        if(aggregate) {
+            throw new IllegalStateException("Sensitivity analysis needs one vertex per student");
+        }
+        if(!isOptimal()) {
+            throw new IllegalStateException("Sensitivity analysis needs a maximum flow, but the solve was interrupted or approximate");
+        }
+        FlowSensitivity sensitivity = new FlowSensitivity(net);
+        for(int student = 1; student <= instance.getNumStudents(); student++) {
+            for(int i = net.getArcStart(student); i < net.getArcEnd(student); i++) {
+                int arc = net.getArc(i);
+                if(!Network.isForwardArc(arc)) {
+                    continue;
+                }
+                int edge = Network.arcEdge(arc);
+                String usage;
+                switch(sensitivity.getUsage(edge)) {
+                    case ALWAYS_USED:
+                        usage = "is always";
+                        break;
+                    case SOMETIMES_USED:
+                        usage = "can be";
+                        break;
+                    default:
+                        usage = "is never";
+                        break;
+                }
+                System.out.printf("Student %d %s assigned to project %d%n",
+                        student,
+                        usage,
+                        net.getEdgeHead(edge) - numStudentVertices
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.*;
+
+/**
+ * The Class LecturerSupply. Bounds the number of students each lecturer can
+ * be assigned, before any solve, by the smallest of three quantities: the
+ * lecturer's capacity, the lecturer's places - the sum over the lecturer's
+ * projects of the smaller of each project's capacity and the number of
+ * distinct students who list it and may take it - and the lecturer's supply,
+ * the number of distinct students who list one of the lecturer's projects
+ * and may take it. Any assignment gives each lecturer at most that many
+ * students, so a lecturer asked for more, such as a lecturer whose lower
+ * quota is above the bound, can be named as short without running a flow:
+ * each is a violation of Hall's condition for the set of places that
+ * lecturer offers.
+ *
+ * The supplies and places are counted in one pass over the preference
+ * lists, which marks each lecturer and each project with the last student
+ * counted for it so that a student listing several of the same lecturer's
+ * projects, or one project more than once, is counted once. This takes time
+ * linear in the size of the instance and one int per lecturer and project,
+ * where a bitset of students for each lecturer would take space
+ * proportional to their product.
+ */
+public class LecturerSupply {
+
+    /**
+     * The instance.
+     */
+    private final AllocationInstance instance;
+
+    /**
+     * The number of distinct students who may take one of each lecturer's
+     * projects, indexed from 1.
+     */
+    private final int[] supply;
+
+    /**
+     * The places on each lecturer's projects that some student may fill,
+     * indexed from 1.
+     */
+    private final long[] places;
+
+    /**
+     * Instantiates a new LecturerSupply, counting the supply and places of
+     * every lecturer of the instance.
+     *
+     * @param instance the instance
+     */
+    public LecturerSupply(AllocationInstance instance) {
+        this.instance = instance;
+        int numProjects = instance.getNumProjects();
+        int numLecturers = instance.getNumLecturers();
+        supply = new int[numLecturers + 1];
+        places = new long[numLecturers + 1];
+
+        // the last student counted for each lecturer and project, and the
+        // number of distinct students who may take each project
+        int[] countedLecturer = new int[numLecturers + 1];
+        int[] countedProject = new int[numProjects + 1];
+        int[] reachable = new int[numProjects + 1];
+        for(int student = 1; student <= instance.getNumStudents(); student++) {
+            for(int project : instance.getStudentProjects(student)) {
+                if(countedProject[project] == student || !instance.isAllowed(student, project)) {
+                    continue;
+                }
+                countedProject[project] = student;
+                reachable[project]++;
+                int lecturer = instance.getProjectLecturer(project);
+                if(countedLecturer[lecturer] != student) {
+                    countedLecturer[lecturer] = student;
+                    supply[lecturer]++;
+                }
+            }
+        }
+        for(int project = 1; project <= numProjects; project++) {
+            places[instance.getProjectLecturer(project)] += Math.min(instance.getProjectCapacity(project), reachable[project]);
+        }
+    }
+
+    /**
+     * Gets the number of distinct students who may take one of a lecturer's
+     * projects.
+     *
+     * @param lecturer the lecturer number
+     * @return the supply of the lecturer
+     */
+    public int getSupply(int lecturer) {
+        return supply[lecturer];
+    }
+
+    /**
+     * Gets the places on a lecturer's projects that some student may fill.
+     *
+     * @param lecturer the lecturer number
+     * @return the sum over the lecturer's projects of the smaller of the
+     *         project's capacity and the number of students who may take it
+     */
+    public long getPlaces(int lecturer) {
+        return places[lecturer];
+    }
+
+    /**
+     * Gets the most students a lecturer can be assigned in any assignment.
+     *
+     * @param lecturer the lecturer number
+     * @return the smallest of the lecturer's capacity, places and supply
+     */
+    public long getBound(int lecturer) {
+        return Math.min(instance.getLecturerCapacity(lecturer), Math.min(places[lecturer], supply[lecturer]));
+    }
+
+    /**
+     * Finds the lecturers who cannot be assigned as many students as they
+     * demand in any assignment.
+     *
+     * @param demand the number of students each lecturer demands, indexed
+     *               from 1
+     * @return the lecturers whose bound is below their demand, in increasing
+     *         order
+     */
+    public List<Integer> findShortfalls(int[] demand) {
+        if(demand.length != supply.length) {
+            throw new IllegalArgumentException("A demand is needed for each of the " + (supply.length - 1) + " lecturers");
+        }
+        List<Integer> shortfalls = new ArrayList<>();
+        for(int lecturer = 1; lecturer < supply.length; lecturer++) {
+            if(getBound(lecturer) < demand[lecturer]) {
+                shortfalls.add(lecturer);
+            }
+        }
+        return shortfalls;
+    }
+
+    /**
+     * Finds the lecturers whose lower quota no assignment can meet.
+     *
+     * @return the lecturers whose bound is below their lower quota, in
+     *         increasing order
+     */
+    public List<Integer> findLowerQuotaShortfalls() {
+        int[] lowerQuota = new int[supply.length];
+        for(int lecturer = 1; lecturer < supply.length; lecturer++) {
+            lowerQuota[lecturer] = instance.getLecturerLowerQuota(lecturer);
+        }
+        return findShortfalls(lowerQuota);
+    }
+}
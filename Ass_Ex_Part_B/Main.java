@@ -1,22 +1,228 @@
+import networkFlow.FlowScenario;
+import networkFlow.MaxFlowSolvers;
+import networkFlow.SolveControl;
+import java.io.IOException;
+import java.util.List;
+import java.nio.file.Paths;
+
 public class Main {
 
     /**
      * The main method.
      *
-     * @param args the name of the file containing the input network.
+     * @param args the name of the file containing the input network,
+     *             optionally followed by -reorder bfs|rcm,
+     *             -engine auto|residual|bfs|bitset|bidirectional|dinic,
+     *             -timelimit <milliseconds>, -approximate <epsilon>,
+     *             -aggregate, -sensitivity,
+     *             -certificate, -balanced, -sweep <file> and
+     *             -scenarios <file>, -checkpoint <file> with
+     *             -checkpointinterval <seconds>, -resume <file>,
+     *             -save <file>, -delta <file>, -cache <directory> and
+     *             -supply.
+     *             With -delta the file given first is a state saved by
+     *             -save rather than an instance.
      */
     public static void main(String args[]) {
 
         // construct FordFulk object passing filename to constructor
         FordFulk fordFulk = new FordFulk(args[0]);
 
-        // read network from file given by first argument
-        fordFulk.readNetworkFromFile();
+        // apply any options given after the filename
+        boolean aggregate = false;
+        boolean sensitivity = false;
+        boolean supply = false;
+        boolean certificate = false;
+        long timeLimit = -1;
+        boolean approximate = false;
+        String sweepFilename = null;
+        boolean balanced = false;
+        String scenarioFilename = null;
+        String deltaFilename = null;
+        String stateFilename = null;
+        String cacheDirectory = null;
+        String engine = MaxFlowSolvers.AUTO;
+        boolean resume = false;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("-reorder") && i + 1 < args.length) {
+                    fordFulk.setOrdering(args[++i]);
+                } else if (args[i].equals("-engine") && i + 1 < args.length) {
+                    engine = args[++i];
+                    fordFulk.setEngine(engine);
+                } else if (args[i].equals("-timelimit") && i + 1 < args.length) {
+                    timeLimit = Long.parseLong(args[++i]);
+                    if (timeLimit < 0) {
+                        throw new IllegalArgumentException("The time limit must not be negative");
+                    }
+                } else if (args[i].equals("-approximate") && i + 1 < args.length) {
+                    fordFulk.setApproximation(Double.parseDouble(args[++i]));
+                    approximate = true;
+                } else if (args[i].equals("-checkpoint") && i + 1 < args.length) {
+                    fordFulk.setCheckpoint(args[++i]);
+                } else if (args[i].equals("-checkpointinterval") && i + 1 < args.length) {
+                    fordFulk.setCheckpointInterval(Long.parseLong(args[++i]));
+                } else if (args[i].equals("-resume") && i + 1 < args.length) {
+                    fordFulk.setResume(args[++i]);
+                    resume = true;
+                } else if (args[i].equals("-delta") && i + 1 < args.length) {
+                    deltaFilename = args[++i];
+                } else if (args[i].equals("-save") && i + 1 < args.length) {
+                    stateFilename = args[++i];
+                } else if (args[i].equals("-cache") && i + 1 < args.length) {
+                    cacheDirectory = args[++i];
+                } else if (args[i].equals("-aggregate")) {
+                    fordFulk.setAggregate(true);
+                    aggregate = true;
+                } else if (args[i].equals("-sensitivity")) {
+                    sensitivity = true;
+                } else if (args[i].equals("-supply")) {
+                    supply = true;
+                } else if (args[i].equals("-sweep") && i + 1 < args.length) {
+                    sweepFilename = args[++i];
+                } else if (args[i].equals("-scenarios") && i + 1 < args.length) {
+                    scenarioFilename = args[++i];
+                } else if (args[i].equals("-balanced")) {
+                    balanced = true;
+                } else if (args[i].equals("-certificate")) {
+                    certificate = true;
+                } else {
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (aggregate && sensitivity) {
+                throw new IllegalArgumentException("-sensitivity cannot be combined with -aggregate");
+            }
+            if (balanced && timeLimit >= 0) {
+                throw new IllegalArgumentException("-balanced needs a complete solve, so cannot be combined with -timelimit");
+            }
+            if (sensitivity && timeLimit >= 0) {
+                throw new IllegalArgumentException("-sensitivity needs a complete solve, so cannot be combined with -timelimit");
+            }
+            if (scenarioFilename != null) {
+                FlowScenario.checkEngine(engine);
+            }
+            if (deltaFilename != null && resume) {
+                throw new IllegalArgumentException("-delta starts from the saved assignment, so cannot be combined with -resume");
+            }
+            if (cacheDirectory != null && (balanced || sensitivity || certificate || sweepFilename != null || scenarioFilename != null)) {
+                throw new IllegalArgumentException("-cache only keeps the assignment, so cannot be combined with -balanced, -sensitivity, -certificate, -sweep or -scenarios");
+            }
+            if (approximate && !engine.equals(MaxFlowSolvers.AUTO)) {
+                throw new IllegalArgumentException("-approximate uses its own engine, so cannot be combined with -engine " + engine);
+            }
+            if ((balanced || sensitivity) && approximate) {
+                throw new IllegalArgumentException((balanced? "-balanced" : "-sensitivity") + " needs a maximum flow, so cannot be combined with -approximate");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java Main <file> [-reorder none|bfs|rcm] [-engine auto|<name>] [-timelimit <ms>] [-approximate <epsilon>] [-aggregate] [-sensitivity] [-certificate] [-balanced] [-sweep <file>] [-scenarios <file>]");
+            System.err.println("       [-checkpoint <file>] [-checkpointinterval <s>] [-resume <file>] [-save <file>] [-delta <file>] [-cache <dir>] [-supply]");
+            System.err.println("Engines: " + String.join(", ", MaxFlowSolvers.getNames()));
+            System.exit(1);
+        }
+
+        // answer instances solved before from the cache
+        if (cacheDirectory != null) {
+            try {
+                fordFulk.setCache(new AllocationCache(Paths.get(cacheDirectory), AllocationCache.DEFAULT_CAPACITY));
+            } catch (IOException e) {
+                System.err.println("IO error:");
+                System.err.println(e);
+                System.exit(1);
+            }
+        }
+
+        // read network from file given by first argument, or the saved state
+        // it holds with the delta applied
+        try {
+            if (deltaFilename != null) {
+                fordFulk.readStateFromFile(deltaFilename);
+            } else {
+                fordFulk.readNetworkFromFile();
+            }
+
+            // reject lower quotas no assignment can meet, before solving
+            fordFulk.checkLowerQuotas();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+
+        // name the lecturers no assignment can fill, before solving
+        if (supply) {
+            fordFulk.printSupply();
+        }
 
         // apply Ford-Fulkerson algorithm to constructed network
-        fordFulk.fordFulkerson();
+        SolveControl control = new SolveControl();
+        if (timeLimit >= 0) {
+            control.setTimeLimit(timeLimit);
+        }
+        try {
+            fordFulk.fordFulkerson(control);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+
+        // spread the students evenly across lecturers without losing any
+        if (balanced) {
+            fordFulk.balanceLecturerLoad();
+        }
+
+        // keep the instance and assignment for the next delta
+        if (stateFilename != null) {
+            fordFulk.saveState(stateFilename);
+        }
 
         // check whether the assignment is a valid flow
         fordFulk.printResults();
+
+        if (balanced) {
+            fordFulk.printBalance();
+        }
+
+        // report the cut proving the flow is maximum, or how far it may be from it
+        if (certificate || !fordFulk.isOptimal()) {
+            fordFulk.printCertificate();
+        }
+
+        // report which assignments are forced or possible in a maximum assignment
+        if (sensitivity) {
+            fordFulk.printSensitivity();
+        }
+
+        // solve what-if variants of the instance in parallel
+        if (scenarioFilename != null) {
+            try {
+                fordFulk.runScenarios(scenarioFilename, Runtime.getRuntime().availableProcessors());
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.exit(1);
+            }
+        }
+
+        // solve each step of a capacity sweep, warm-starting from the flow above
+        if (sweepFilename != null) {
+            try {
+                fordFulk.sweep(sweepFilename);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.exit(1);
+            }
+        }
+
+        // fail an assignment that misses a lower quota, which the solve does
+        // not enforce
+        List<Integer> missed = fordFulk.getMissedLowerQuotas();
+        if (!missed.isEmpty()) {
+            StringBuilder names = new StringBuilder();
+            for (int lecturer : missed) {
+                names.append((names.length() == 0)? "" : ", ").append(lecturer);
+            }
+            System.err.println("The assignment misses the lower quota of lecturer" + (missed.size() == 1? " " : "s ") + names);
+            System.exit(1);
+        }
     }
 }
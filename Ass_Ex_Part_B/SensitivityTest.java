@@ -0,0 +1,134 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * The Class SensitivityTest. Checks printSensitivity against brute force on
+ * small instances, including students who list a project twice: every
+ * assignment is enumerated, and a student and project are always, sometimes
+ * or never paired according to the maximum assignments that pair them.
+ * Exits with status 1 on the first mismatch.
+ */
+public class SensitivityTest {
+
+    /**
+     * The form of one line printed by printSensitivity.
+     */
+    private static final Pattern LINE = Pattern.compile("Student (\\d+) (is always|can be|is never) assigned to project (\\d+)");
+
+    /**
+     * The instance with a duplicated listing: student 3 lists project 3
+     * twice and is the only student allowed on it, so every maximum
+     * assignment gives it project 3.
+     */
+    private static final String DUPLICATE = String.join("\n",
+            "3", "3", "2",
+            "1 N 2",
+            "2 Y 2 1",
+            "3 N 3 3 2",
+            "1 Y 1 1",
+            "2 N 1 1",
+            "3 N 2 1",
+            "1 2",
+            "2 1") + "\n";
+
+    /**
+     * The main method.
+     *
+     * @param args the number of random instances and the random seed, both
+     *             optional
+     */
+    public static void main(String args[]) throws IOException {
+        int count = (args.length > 0)? Integer.parseInt(args[0]) : 300;
+        long seed = (args.length > 1)? Long.parseLong(args[1]) : 1;
+        Path file = Files.createTempFile("sensitivity", ".txt");
+        try {
+            check(file, DUPLICATE);
+            Random random = new Random(seed);
+            for(int i = 0; i < count; i++) {
+                check(file, TestInstances.generate(random));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        System.out.printf("Sensitivity matches brute force on %d instances%n", count + 1);
+    }
+
+    /**
+     * Solves an instance, runs printSensitivity and compares each line with
+     * brute force, exiting on a mismatch.
+     *
+     * @param file the file to write the instance to
+     * @param text the instance
+     */
+    private static void check(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes());
+        FordFulk fordFulk = new FordFulk(file.toString());
+        fordFulk.readNetworkFromFile();
+        fordFulk.fordFulkerson();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(buffer));
+        try {
+            fordFulk.printSensitivity();
+        } finally {
+            System.setOut(out);
+        }
+
+        AllocationInstance instance = TestInstances.read(text);
+        String[] expected = bruteForce(instance);
+        Set<String> seen = new HashSet<>();
+        for(String line : buffer.toString().split("\n")) {
+            if(line.trim().isEmpty()) {
+                continue;
+            }
+            Matcher m = LINE.matcher(line.trim());
+            if(!m.matches()) {
+                TestInstances.fail("Sensitivity", text, "unexpected line: " + line);
+            }
+            int student = Integer.parseInt(m.group(1));
+            int project = Integer.parseInt(m.group(3));
+            if(!seen.add(student + " " + project)) {
+                TestInstances.fail("Sensitivity", text, "student " + student + " and project " + project + " are classified twice");
+            }
+            String usage = expected[student * (instance.getNumProjects() + 1) + project];
+            if(!m.group(2).equals(usage)) {
+                TestInstances.fail("Sensitivity", text, "student " + student + " " + m.group(2) + " assigned to project " + project + ", but brute force says " + usage);
+            }
+        }
+        for(int student = 1; student <= instance.getNumStudents(); student++) {
+            for(int project : instance.getStudentProjects(student)) {
+                if(!seen.contains(student + " " + project)) {
+                    TestInstances.fail("Sensitivity", text, "student " + student + " and project " + project + " are not classified");
+                }
+            }
+        }
+    }
+
+    /**
+     * Classifies every student and project pair by enumerating all
+     * assignments.
+     *
+     * @param instance the instance
+     * @return the usage printed for each pair, indexed by student times
+     *         (projects + 1) plus project
+     */
+    private static String[] bruteForce(AllocationInstance instance) {
+        int width = instance.getNumProjects() + 1;
+        List<int[]> maximum = TestInstances.maximumAssignments(instance);
+        String[] usage = new String[(instance.getNumStudents() + 1) * width];
+        for(int student = 1; student <= instance.getNumStudents(); student++) {
+            for(int project = 1; project < width; project++) {
+                int pairs = 0;
+                for(int[] a : maximum) {
+                    if(a[student] == project) {
+                        pairs++;
+                    }
+                }
+                usage[student * width + project] = (pairs == 0)? "is never" : (pairs == maximum.size())? "is always" : "can be";
+            }
+        }
+        return usage;
+    }
+}
@@ -0,0 +1,286 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The Class TestInstances. What the self-checking test classes share: small
+ * random instances in the input file format, reading and writing that
+ * format, brute-force enumeration of the maximum assignments and checks on
+ * the assignments a FordFulk leaves behind.
+ */
+final class TestInstances {
+
+    /**
+     * Not instantiated.
+     */
+    private TestInstances() {
+    }
+
+    /**
+     * Generates a small random instance in which students may list a
+     * project more than once.
+     *
+     * @param random the source of randomness
+     * @return the instance, in the input file format
+     */
+    static String generate(Random random) {
+        int numStudents = 1 + random.nextInt(6);
+        int numProjects = 1 + random.nextInt(4);
+        int numLecturers = 1 + random.nextInt(2);
+        StringBuilder text = new StringBuilder();
+        text.append(numStudents).append('\n').append(numProjects).append('\n').append(numLecturers).append('\n');
+        for(int student = 1; student <= numStudents; student++) {
+            text.append(student).append(random.nextInt(4) == 0? " Y" : " N");
+            int length = random.nextInt(4);
+            for(int j = 0; j < length; j++) {
+                text.append(' ').append(1 + random.nextInt(numProjects));
+            }
+            text.append('\n');
+        }
+        for(int project = 1; project <= numProjects; project++) {
+            text.append(project).append(random.nextBoolean()? " Y " : " N ")
+                    .append(1 + random.nextInt(numLecturers)).append(' ').append(1 + random.nextInt(2)).append('\n');
+        }
+        for(int lecturer = 1; lecturer <= numLecturers; lecturer++) {
+            text.append(lecturer).append(' ').append(1 + random.nextInt(3)).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads an instance from its text. A lecturer line may give a lower
+     * quota before the capacity, as in the Part C format.
+     *
+     * @param text the instance, in the input file format
+     * @return the instance
+     */
+    static AllocationInstance read(String text) {
+        String[] lines = text.split("\n");
+        int numStudents = Integer.parseInt(lines[0]);
+        int numProjects = Integer.parseInt(lines[1]);
+        int numLecturers = Integer.parseInt(lines[2]);
+        AllocationInstance instance = new AllocationInstance(numStudents, numProjects, numLecturers);
+        for(int i = 0; i < numStudents; i++) {
+            String[] tokens = lines[3 + i].split(" ");
+            int[] projects = new int[tokens.length - 2];
+            for(int j = 2; j < tokens.length; j++) {
+                projects[j - 2] = Integer.parseInt(tokens[j]);
+            }
+            instance.setStudent(Integer.parseInt(tokens[0]), tokens[1].equals("Y"), projects);
+        }
+        for(int i = 0; i < numProjects; i++) {
+            String[] tokens = lines[3 + numStudents + i].split(" ");
+            instance.setProject(Integer.parseInt(tokens[0]), tokens[1].equals("Y"), Integer.parseInt(tokens[2]), Integer.parseInt(tokens[3]));
+        }
+        for(int i = 0; i < numLecturers; i++) {
+            String[] tokens = lines[3 + numStudents + numProjects + i].split(" ");
+            int lecturer = Integer.parseInt(tokens[0]);
+            if(tokens.length > 2) {
+                instance.setLecturerLowerQuota(lecturer, Integer.parseInt(tokens[1]));
+            }
+            instance.setLecturerCapacity(lecturer, Integer.parseInt(tokens[tokens.length - 1]));
+        }
+        return instance;
+    }
+
+    /**
+     * Writes an instance as text, giving each lecturer's lower quota only if
+     * some lecturer has one.
+     *
+     * @param instance the instance
+     * @return the instance, in the input file format
+     */
+    static String write(AllocationInstance instance) {
+        StringBuilder text = new StringBuilder();
+        text.append(instance.getNumStudents()).append('\n')
+                .append(instance.getNumProjects()).append('\n')
+                .append(instance.getNumLecturers()).append('\n');
+        for(int student = 1; student <= instance.getNumStudents(); student++) {
+            text.append(student).append(instance.isStudentSE(student)? " Y" : " N");
+            for(int project : instance.getStudentProjects(student)) {
+                text.append(' ').append(project);
+            }
+            text.append('\n');
+        }
+        for(int project = 1; project <= instance.getNumProjects(); project++) {
+            text.append(project).append(instance.isProjectSE(project)? " Y " : " N ")
+                    .append(instance.getProjectLecturer(project)).append(' ')
+                    .append(instance.getProjectCapacity(project)).append('\n');
+        }
+        for(int lecturer = 1; lecturer <= instance.getNumLecturers(); lecturer++) {
+            text.append(lecturer).append(' ');
+            if(instance.hasLowerQuotas()) {
+                text.append(instance.getLecturerLowerQuota(lecturer)).append(' ');
+            }
+            text.append(instance.getLecturerCapacity(lecturer)).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Solves the instance in a file and returns the instance and assignment
+     * as saveState writes them.
+     *
+     * @param file the file holding the instance
+     * @param stateFile the file to save the state to
+     * @return the saved state
+     * @throws IOException if the state cannot be read back
+     */
+    static AllocationState solve(Path file, Path stateFile) throws IOException {
+        FordFulk fordFulk = new FordFulk(file.toString());
+        fordFulk.readNetworkFromFile();
+        fordFulk.fordFulkerson();
+        return saved(fordFulk, stateFile);
+    }
+
+    /**
+     * Saves the instance and assignment of a FordFulk and reads them back.
+     *
+     * @param fordFulk the FordFulk, after fordFulkerson
+     * @param stateFile the file to save the state to
+     * @return the saved state
+     * @throws IOException if the state cannot be read back
+     */
+    static AllocationState saved(FordFulk fordFulk, Path stateFile) throws IOException {
+        fordFulk.saveState(stateFile.toString());
+        return AllocationState.read(stateFile);
+    }
+
+    /**
+     * Enumerates every assignment of the largest size.
+     *
+     * @param instance the instance
+     * @return the maximum assignments, each the project assigned to each
+     *         student, or 0, indexed from 1
+     */
+    static List<int[]> maximumAssignments(AllocationInstance instance) {
+        List<int[]> maximum = new ArrayList<>();
+        enumerate(instance, 1, 0, new int[instance.getNumStudents() + 1], new int[instance.getNumProjects() + 1],
+                new int[instance.getNumLecturers() + 1], new int[1], maximum);
+        return maximum;
+    }
+
+    /**
+     * Enumerates the assignments of the students from the given one on,
+     * keeping those of the largest size found.
+     *
+     * @param instance the instance
+     * @param student the next student to assign
+     * @param size the number of students assigned so far
+     * @param assignment the assignment so far
+     * @param projectLoad the load of each project so far
+     * @param lecturerLoad the load of each lecturer so far
+     * @param best holds the largest size found
+     * @param maximum receives the assignments of that size
+     */
+    private static void enumerate(AllocationInstance instance, int student, int size, int[] assignment,
+            int[] projectLoad, int[] lecturerLoad, int[] best, List<int[]> maximum) {
+        if(student > instance.getNumStudents()) {
+            if(size > best[0]) {
+                best[0] = size;
+                maximum.clear();
+            }
+            if(size == best[0]) {
+                maximum.add(assignment.clone());
+            }
+            return;
+        }
+        assignment[student] = 0;
+        enumerate(instance, student + 1, size, assignment, projectLoad, lecturerLoad, best, maximum);
+        for(int project : new TreeSet<>(toList(instance.getStudentProjects(student)))) {
+            int lecturer = instance.getProjectLecturer(project);
+            if(!instance.isAllowed(student, project)
+                    || projectLoad[project] == instance.getProjectCapacity(project)
+                    || lecturerLoad[lecturer] == instance.getLecturerCapacity(lecturer)) {
+                continue;
+            }
+            assignment[student] = project;
+            projectLoad[project]++;
+            lecturerLoad[lecturer]++;
+            enumerate(instance, student + 1, size + 1, assignment, projectLoad, lecturerLoad, best, maximum);
+            projectLoad[project]--;
+            lecturerLoad[lecturer]--;
+            assignment[student] = 0;
+        }
+    }
+
+    /**
+     * Boxes the values of an array.
+     *
+     * @param values the values
+     * @return a list of the values
+     */
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>();
+        for(int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * Checks that an assignment respects every list, SE rule and capacity.
+     *
+     * @param instance the instance
+     * @param assignment the project assigned to each student, or 0
+     * @return what is wrong with the assignment, or null if nothing is
+     */
+    static String findViolation(AllocationInstance instance, int[] assignment) {
+        if(assignment.length != instance.getNumStudents() + 1) {
+            return "the assignment has " + (assignment.length - 1) + " students, not " + instance.getNumStudents();
+        }
+        int[] projectLoad = new int[instance.getNumProjects() + 1];
+        int[] lecturerLoad = new int[instance.getNumLecturers() + 1];
+        for(int student = 1; student <= instance.getNumStudents(); student++) {
+            int project = assignment[student];
+            if(project == 0) {
+                continue;
+            }
+            if(!toList(instance.getStudentProjects(student)).contains(project) || !instance.isAllowed(student, project)) {
+                return "student " + student + " cannot take project " + project;
+            }
+            projectLoad[project]++;
+            lecturerLoad[instance.getProjectLecturer(project)]++;
+        }
+        for(int project = 1; project <= instance.getNumProjects(); project++) {
+            if(projectLoad[project] > instance.getProjectCapacity(project)) {
+                return "project " + project + " is over capacity";
+            }
+        }
+        for(int lecturer = 1; lecturer <= instance.getNumLecturers(); lecturer++) {
+            if(lecturerLoad[lecturer] > instance.getLecturerCapacity(lecturer)) {
+                return "lecturer " + lecturer + " is over capacity";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts the students an assignment assigns.
+     *
+     * @param assignment the project assigned to each student, or 0
+     * @return the number of students assigned
+     */
+    static int size(int[] assignment) {
+        int size = 0;
+        for(int student = 1; student < assignment.length; student++) {
+            if(assignment[student] != 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Reports a mismatch and exits.
+     *
+     * @param test the name of the test
+     * @param text the instance, or the instance and change, that failed
+     * @param message what went wrong
+     */
+    static void fail(String test, String text, String message) {
+        System.err.println(test + " mismatch: " + message);
+        System.err.print(text);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,54 @@
+package networkFlow;
+
+/**
+ * The Class AugmentingPathSolver. The Ford-Fulkerson method over the arc
+ * arrays of a network: repeatedly finds an augmenting path with a PathSearch
+ * and augments along it until no path remains.
+ */
+public class AugmentingPathSolver implements MaxFlowSolver {
+
+    /**
+     * The name the engine is registered under.
+     */
+    private final String name;
+
+    /**
+     * The strategy used to find each augmenting path.
+     */
+    private final PathSearch search;
+
+    /**
+     * Receives the arcs of each path found, kept between solves so that
+     * repeated solves do not allocate.
+     */
+    private int[] path = new int[0];
+
+    /**
+     * Instantiates a new AugmentingPathSolver.
+     *
+     * @param name the engine name
+     * @param search the path search to use
+     */
+    public AugmentingPathSolver(String name, PathSearch search) {
+        this.name = name;
+        this.search = search;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int solve(FlowGraph net, SolveControl control) {
+        if (path.length < net.getNumVertices()) {
+            path = new int[net.getNumVertices()];
+        }
+        int value = net.getValue();
+        int length;
+        while (!control.shouldStop(value) && (length = search.findPath(net, path)) != -1) {
+            value += net.augmentArcs(path, length);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,149 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class BidirectionalPathSearch. Finds an augmenting path by growing two
+ * breadth-first searches at once: one from the source along residual arcs and
+ * one from the sink along residual arcs followed backwards. Each step expands
+ * a whole level of whichever search has the smaller frontier, and the search
+ * ends as soon as a vertex is reached from both sides. On wide but shallow
+ * networks this avoids expanding most of the student layer, as the sink side
+ * reaches the students through the few projects with spare capacity.
+ */
+public class BidirectionalPathSearch implements PathSearch {
+
+    /**
+     * The queue of the search from the source.
+     */
+    private int[] sourceQueue = new int[0];
+
+    /**
+     * The queue of the search from the sink.
+     */
+    private int[] sinkQueue = new int[0];
+
+    /**
+     * The arc by which each vertex was reached from the source.
+     */
+    private int[] parentArc = new int[0];
+
+    /**
+     * The arc leading from each vertex towards the sink.
+     */
+    private int[] childArc = new int[0];
+
+    /**
+     * sourceStamp[u] == stamp if and only if u has been reached from the
+     * source in the current search.
+     */
+    private int[] sourceStamp = new int[0];
+
+    /**
+     * sinkStamp[u] == stamp if and only if u has been reached from the sink in
+     * the current search.
+     */
+    private int[] sinkStamp = new int[0];
+
+    /**
+     * The stamp of the current search.
+     */
+    private int stamp;
+
+    @Override
+    public int findPath(FlowGraph net, int[] path) {
+        int n = net.getNumVertices();
+        if (parentArc.length < n) {
+            sourceQueue = new int[n];
+            sinkQueue = new int[n];
+            parentArc = new int[n];
+            childArc = new int[n];
+            sourceStamp = new int[n];
+            sinkStamp = new int[n];
+            stamp = 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(sourceStamp, 0);
+            Arrays.fill(sinkStamp, 0);
+            stamp = 1;
+        }
+
+        int sourceHead = 0;
+        int sourceTail = 0;
+        int sinkHead = 0;
+        int sinkTail = 0;
+        sourceQueue[sourceTail++] = net.getSourceLabel();
+        sourceStamp[net.getSourceLabel()] = stamp;
+        sinkQueue[sinkTail++] = net.getSinkLabel();
+        sinkStamp[net.getSinkLabel()] = stamp;
+
+        while (sourceHead < sourceTail && sinkHead < sinkTail) {
+            if (sourceTail - sourceHead <= sinkTail - sinkHead) {
+                // expand one level of the search from the source
+                int levelEnd = sourceTail;
+                while (sourceHead < levelEnd) {
+                    int u = sourceQueue[sourceHead++];
+                    for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                        int a = net.getArc(i);
+                        int v = net.arcHead(a);
+                        if (sourceStamp[v] == stamp || net.residualCapacity(a) <= 0) {
+                            continue;
+                        }
+                        sourceStamp[v] = stamp;
+                        parentArc[v] = a;
+                        if (sinkStamp[v] == stamp) {
+                            return stitchPath(net, v, path);
+                        }
+                        sourceQueue[sourceTail++] = v;
+                    }
+                }
+            } else {
+                // expand one level of the search from the sink, over arcs into
+                // each vertex - the reverses of the arcs leaving it
+                int levelEnd = sinkTail;
+                while (sinkHead < levelEnd) {
+                    int v = sinkQueue[sinkHead++];
+                    for (int i = net.getArcStart(v); i < net.getArcEnd(v); i++) {
+                        int in = net.getArc(i) ^ 1;
+                        int u = net.arcTail(in);
+                        if (sinkStamp[u] == stamp || net.residualCapacity(in) <= 0) {
+                            continue;
+                        }
+                        sinkStamp[u] = stamp;
+                        childArc[u] = in;
+                        if (sourceStamp[u] == stamp) {
+                            return stitchPath(net, u, path);
+                        }
+                        sinkQueue[sinkTail++] = u;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the path from the source to the meeting vertex, followed by the
+     * path from the meeting vertex to the sink, into path.
+     *
+     * @param net the network
+     * @param meet a vertex reached by both searches
+     * @param path the array to receive the arcs
+     * @return the number of arcs in the path
+     */
+    private int stitchPath(FlowGraph net, int meet, int[] path) {
+        int length = 0;
+        for (int v = meet; v != net.getSourceLabel(); v = net.arcTail(parentArc[v])) {
+            path[length++] = parentArc[v];
+        }
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = path[i];
+            path[i] = path[j];
+            path[j] = tmp;
+        }
+        for (int u = meet; u != net.getSinkLabel(); u = net.arcHead(childArc[u])) {
+            path[length++] = childArc[u];
+        }
+        return length;
+    }
+}
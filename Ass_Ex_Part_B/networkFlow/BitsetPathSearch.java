@@ -0,0 +1,172 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class BitsetPathSearch. Finds a shortest augmenting path with Beamer's
+ * direction-optimizing breadth-first search, keeping the frontier and visited
+ * sets as bitsets.
+ *
+ * While the frontier is small the search expands top-down, scanning the arcs
+ * of each frontier vertex. Once the arcs leaving the frontier outnumber the
+ * arcs of the unvisited vertices by a factor of ALPHA, as happens on the dense
+ * student to project layer, it switches to bottom-up steps in which each
+ * unvisited vertex looks for any residual arc from the frontier and stops at
+ * the first one found. It switches back once the frontier falls below
+ * numVertices / BETA vertices.
+ */
+public class BitsetPathSearch implements PathSearch {
+
+    /**
+     * Switch to bottom-up when frontier arcs exceed unvisited arcs / ALPHA.
+     */
+    private static final int ALPHA = 14;
+
+    /**
+     * Switch back to top-down when the frontier has fewer than
+     * numVertices / BETA vertices.
+     */
+    private static final int BETA = 24;
+
+    /**
+     * The vertices reached so far.
+     */
+    private long[] visited = new long[0];
+
+    /**
+     * The vertices reached in the previous step.
+     */
+    private long[] frontier = new long[0];
+
+    /**
+     * The vertices reached in the current step.
+     */
+    private long[] next = new long[0];
+
+    /**
+     * The arc by which each reached vertex was first reached.
+     */
+    private int[] parentArc = new int[0];
+
+    @Override
+    public int findPath(FlowGraph net, int[] path) {
+        int n = net.getNumVertices();
+        int words = (n + 63) >>> 6;
+        if (parentArc.length < n) {
+            parentArc = new int[n];
+        }
+        if (visited.length < words) {
+            visited = new long[words];
+            frontier = new long[words];
+            next = new long[words];
+        } else {
+            Arrays.fill(visited, 0, words, 0L);
+            Arrays.fill(frontier, 0, words, 0L);
+        }
+
+        int source = net.getSourceLabel();
+        int sink = net.getSinkLabel();
+        setBit(visited, source);
+        setBit(frontier, source);
+        long frontierArcs = net.getArcEnd(source) - net.getArcStart(source);
+        long unvisitedArcs = net.getArcEnd(n - 1) - frontierArcs;
+        int frontierSize = 1;
+        boolean bottomUp = false;
+
+        while (frontierSize > 0) {
+            if (!bottomUp && frontierArcs > unvisitedArcs / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+
+            Arrays.fill(next, 0, words, 0L);
+            int nextSize = 0;
+            long nextArcs = 0;
+            if (bottomUp) {
+                // every unvisited vertex looks for a parent in the frontier
+                for (int w = 0; w < words; w++) {
+                    long candidates = ~visited[w];
+                    while (candidates != 0) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(candidates);
+                        candidates &= candidates - 1;
+                        if (v >= n) {
+                            break;
+                        }
+                        for (int i = net.getArcStart(v); i < net.getArcEnd(v); i++) {
+                            int a = net.getArc(i);
+                            int u = net.arcHead(a);
+                            int in = a ^ 1;
+                            if (testBit(frontier, u) && net.residualCapacity(in) > 0) {
+                                parentArc[v] = in;
+                                setBit(next, v);
+                                nextSize++;
+                                nextArcs += net.getArcEnd(v) - net.getArcStart(v);
+                                break;
+                            }
+                        }
+                    }
+                }
+                for (int w = 0; w < words; w++) {
+                    visited[w] |= next[w];
+                }
+                if (testBit(visited, sink)) {
+                    return BreadthFirstPathSearch.tracePath(net, parentArc, path);
+                }
+            } else {
+                // every frontier vertex scans its own arcs
+                for (int w = 0; w < words; w++) {
+                    long members = frontier[w];
+                    while (members != 0) {
+                        int u = (w << 6) + Long.numberOfTrailingZeros(members);
+                        members &= members - 1;
+                        for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                            int a = net.getArc(i);
+                            int v = net.arcHead(a);
+                            if (testBit(visited, v) || net.residualCapacity(a) <= 0) {
+                                continue;
+                            }
+                            parentArc[v] = a;
+                            if (v == sink) {
+                                return BreadthFirstPathSearch.tracePath(net, parentArc, path);
+                            }
+                            setBit(visited, v);
+                            setBit(next, v);
+                            nextSize++;
+                            nextArcs += net.getArcEnd(v) - net.getArcStart(v);
+                        }
+                    }
+                }
+            }
+
+            long[] tmp = frontier;
+            frontier = next;
+            next = tmp;
+            frontierSize = nextSize;
+            unvisitedArcs -= nextArcs;
+            frontierArcs = nextArcs;
+        }
+        return -1;
+    }
+
+    /**
+     * Sets bit i of the bitset.
+     *
+     * @param bits the bitset
+     * @param i the bit index
+     */
+    private static void setBit(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Tests bit i of the bitset.
+     *
+     * @param bits the bitset
+     * @param i the bit index
+     * @return true, if bit i is set
+     */
+    private static boolean testBit(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+}
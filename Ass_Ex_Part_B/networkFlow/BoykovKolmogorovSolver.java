@@ -0,0 +1,419 @@
+package networkFlow;
+
+/**
+ * The Class BoykovKolmogorovSolver. Boykov and Kolmogorov's augmenting path
+ * algorithm, which grows a search tree from the source and another into the
+ * sink and keeps both between augmentations rather than searching afresh for
+ * every path.
+ *
+ * Each solve repeats three stages. Growth takes active vertices - those on
+ * the edge of a tree - one at a time and claims their free neighbours for
+ * the same tree, until an arc joins the two trees. Augmentation pushes the
+ * bottleneck along the path through that arc; each tree arc it saturates
+ * leaves the vertex below it an orphan. Adoption finds each orphan a new
+ * parent in its own tree whose path to the root runs only through
+ * non-orphans, preferring the one nearest the root, or else returns it to
+ * the free vertices and orphans its children. The solve ends when no vertex
+ * is active. On grids such as image segmentation networks, where paths are
+ * short but numerous and each augmentation disturbs little of either tree,
+ * this does far less work than a new search per path.
+ *
+ * Tree membership, parent arcs and the timestamped distances used to check
+ * an orphan's candidate parents are held in primitive arrays indexed by
+ * vertex label and reused between solves.
+ */
+public class BoykovKolmogorovSolver implements MaxFlowSolver {
+
+    /**
+     * Tree label of a vertex in neither tree.
+     */
+    private static final byte FREE = 0;
+
+    /**
+     * Tree label of a vertex in the tree grown from the source.
+     */
+    private static final byte SOURCE_TREE = 1;
+
+    /**
+     * Tree label of a vertex in the tree grown into the sink.
+     */
+    private static final byte SINK_TREE = 2;
+
+    /**
+     * Parent arc of the source and the sink, the roots of the trees.
+     */
+    private static final int ROOT = -1;
+
+    /**
+     * Parent arc of an orphan awaiting adoption.
+     */
+    private static final int ORPHAN = -2;
+
+    /**
+     * The distance given to a candidate parent with no path to its root.
+     */
+    private static final int INFINITE = Integer.MAX_VALUE;
+
+    /**
+     * The number of active vertices processed between checks of the control,
+     * minus one, so that a growth stage that finds few paths still stops
+     * promptly.
+     */
+    private static final int CHECK_MASK = 1023;
+
+    /**
+     * The tree of each vertex: FREE, SOURCE_TREE or SINK_TREE.
+     */
+    private byte[] tree = new byte[0];
+
+    /**
+     * The tree arc of each vertex - from its parent in the source tree, or
+     * to its parent in the sink tree - or ROOT or ORPHAN.
+     */
+    private int[] parentArc = new int[0];
+
+    /**
+     * The adoption stage in which the distance of each vertex from its root
+     * was last found to be dist.
+     */
+    private int[] timestamp = new int[0];
+
+    /**
+     * The number of tree arcs between each vertex and its root, when
+     * timestamp is current.
+     */
+    private int[] dist = new int[0];
+
+    /**
+     * Whether each vertex is in the active queue.
+     */
+    private boolean[] active = new boolean[0];
+
+    /**
+     * The active vertices, as a circular queue.
+     */
+    private int[] activeQueue = new int[0];
+
+    /**
+     * The index in activeQueue of the first active vertex.
+     */
+    private int activeHead;
+
+    /**
+     * The number of vertices in activeQueue.
+     */
+    private int numActive;
+
+    /**
+     * The orphans awaiting adoption, as a circular queue.
+     */
+    private int[] orphanQueue = new int[0];
+
+    /**
+     * The index in orphanQueue of the first orphan.
+     */
+    private int orphanHead;
+
+    /**
+     * The number of vertices in orphanQueue.
+     */
+    private int numOrphans;
+
+    /**
+     * The current adoption stage.
+     */
+    private int time;
+
+    /**
+     * The index in the arc list of the next arc to scan from the vertex
+     * being grown. Growth of a vertex resumes here after an augmentation
+     * rather than rescanning arcs already scanned, which matters for the
+     * source and sink, whose arcs reach most of the network; a vertex that
+     * could reclaim a neighbour freed by adoption is queued again anyway.
+     */
+    private int scanPosition;
+
+    @Override
+    public String getName() {
+        return "bk";
+    }
+
+    @Override
+    public int solve(FlowGraph net, SolveControl control) {
+        int n = net.getNumVertices();
+        allocate(n);
+        for (int u = 0; u < n; u++) {
+            tree[u] = FREE;
+            parentArc[u] = ROOT;
+            timestamp[u] = 0;
+            active[u] = false;
+        }
+        activeHead = 0;
+        numActive = 0;
+        orphanHead = 0;
+        numOrphans = 0;
+        time = 0;
+
+        int source = net.getSourceLabel();
+        int sink = net.getSinkLabel();
+        tree[source] = SOURCE_TREE;
+        tree[sink] = SINK_TREE;
+        dist[source] = 0;
+        dist[sink] = 0;
+        makeActive(source);
+        makeActive(sink);
+
+        int value = net.getValue();
+        int processed = 0;
+        int current = -1;
+        while (!control.shouldStop(value)) {
+            // growth - take the next active vertex unless the last one may
+            // still have a path to give
+            if (current == -1 || tree[current] == FREE) {
+                current = nextActive();
+                if (current == -1) {
+                    break;
+                }
+                scanPosition = net.getArcStart(current);
+                if ((++processed & CHECK_MASK) == 0 && control.shouldStop(value)) {
+                    break;
+                }
+            }
+            int meet = grow(net, current);
+            if (meet == -1) {
+                current = -1;
+                continue;
+            }
+
+            value += augment(net, meet);
+            time++;
+            adopt(net);
+        }
+        return value;
+    }
+
+    /**
+     * Makes sure the work arrays can hold n vertices.
+     *
+     * @param n the number of vertices
+     */
+    private void allocate(int n) {
+        if (tree.length < n) {
+            tree = new byte[n];
+            parentArc = new int[n];
+            timestamp = new int[n];
+            dist = new int[n];
+            active = new boolean[n];
+            activeQueue = new int[n];
+            orphanQueue = new int[n];
+        }
+    }
+
+    /**
+     * Adds u to the back of the active queue unless it is already there.
+     *
+     * @param u the vertex
+     */
+    private void makeActive(int u) {
+        if (!active[u]) {
+            active[u] = true;
+            activeQueue[(activeHead + numActive++) % activeQueue.length] = u;
+        }
+    }
+
+    /**
+     * Takes the first vertex still in a tree from the active queue.
+     *
+     * @return the vertex, or -1 if no vertex is active
+     */
+    private int nextActive() {
+        while (numActive > 0) {
+            int u = activeQueue[activeHead];
+            activeHead = (activeHead + 1) % activeQueue.length;
+            numActive--;
+            active[u] = false;
+            if (tree[u] != FREE) {
+                return u;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Claims the free neighbours of p for its tree, scanning from
+     * scanPosition, until an arc is found joining the two trees.
+     *
+     * @param net the network
+     * @param p a vertex in one of the trees
+     * @return the residual arc from the source tree to the sink tree, or -1
+     *         if p has no neighbour in the other tree
+     */
+    private int grow(FlowGraph net, int p) {
+        boolean fromSource = tree[p] == SOURCE_TREE;
+        int end = net.getArcEnd(p);
+        for (; scanPosition < end; scanPosition++) {
+            int a = net.getArc(scanPosition);
+            // the arc a tree edge between p and q would use
+            int treeArc = fromSource ? a : a ^ 1;
+            if (net.residualCapacity(treeArc) == 0) {
+                continue;
+            }
+            int q = net.arcHead(a);
+            if (tree[q] == FREE) {
+                tree[q] = tree[p];
+                parentArc[q] = treeArc;
+                timestamp[q] = timestamp[p];
+                dist[q] = dist[p] + 1;
+                makeActive(q);
+            } else if (tree[q] != tree[p]) {
+                return treeArc;
+            } else if (timestamp[q] <= timestamp[p] && dist[q] > dist[p] && parentArc[q] >= 0) {
+                // p is a parent nearer the root than q's own
+                parentArc[q] = treeArc;
+                timestamp[q] = timestamp[p];
+                dist[q] = dist[p] + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Pushes the bottleneck along the path from the source through meet to
+     * the sink, orphaning the vertex below each tree arc saturated.
+     *
+     * @param net the network
+     * @param meet the residual arc joining the two trees
+     * @return the amount of flow pushed
+     */
+    private int augment(FlowGraph net, int meet) {
+        int bottleneck = net.residualCapacity(meet);
+        for (int v = net.arcTail(meet); parentArc[v] >= 0; v = net.arcTail(parentArc[v])) {
+            bottleneck = Math.min(bottleneck, net.residualCapacity(parentArc[v]));
+        }
+        for (int v = net.arcHead(meet); parentArc[v] >= 0; v = net.arcHead(parentArc[v])) {
+            bottleneck = Math.min(bottleneck, net.residualCapacity(parentArc[v]));
+        }
+
+        net.pushFlow(meet, bottleneck);
+        for (int v = net.arcTail(meet); parentArc[v] >= 0; ) {
+            int a = parentArc[v];
+            net.pushFlow(a, bottleneck);
+            if (net.residualCapacity(a) == 0) {
+                makeOrphan(v);
+            }
+            v = net.arcTail(a);
+        }
+        for (int v = net.arcHead(meet); parentArc[v] >= 0; ) {
+            int a = parentArc[v];
+            net.pushFlow(a, bottleneck);
+            if (net.residualCapacity(a) == 0) {
+                makeOrphan(v);
+            }
+            v = net.arcHead(a);
+        }
+        return bottleneck;
+    }
+
+    /**
+     * Cuts v from its parent and adds it to the orphan queue.
+     *
+     * @param v a vertex with a parent
+     */
+    private void makeOrphan(int v) {
+        parentArc[v] = ORPHAN;
+        orphanQueue[(orphanHead + numOrphans++) % orphanQueue.length] = v;
+    }
+
+    /**
+     * Finds each orphan a new parent in its own tree, or frees it and
+     * orphans its children, until no orphans remain.
+     *
+     * @param net the network
+     */
+    private void adopt(FlowGraph net) {
+        while (numOrphans > 0) {
+            int o = orphanQueue[orphanHead];
+            orphanHead = (orphanHead + 1) % orphanQueue.length;
+            numOrphans--;
+            boolean inSource = tree[o] == SOURCE_TREE;
+
+            int bestArc = -1;
+            int bestDist = INFINITE;
+            for (int i = net.getArcStart(o); i < net.getArcEnd(o); i++) {
+                int a = net.getArc(i);
+                int q = net.arcHead(a);
+                int treeArc = inSource ? a ^ 1 : a;
+                if (tree[q] != tree[o] || net.residualCapacity(treeArc) == 0) {
+                    continue;
+                }
+                int d = distanceToRoot(net, q, inSource);
+                if (d < bestDist) {
+                    bestDist = d;
+                    bestArc = treeArc;
+                }
+            }
+
+            if (bestArc != -1) {
+                parentArc[o] = bestArc;
+                timestamp[o] = time;
+                dist[o] = bestDist + 1;
+                continue;
+            }
+
+            // no parent - free o, waking the neighbours that could reclaim it
+            // and orphaning its children
+            for (int i = net.getArcStart(o); i < net.getArcEnd(o); i++) {
+                int a = net.getArc(i);
+                int q = net.arcHead(a);
+                if (tree[q] != tree[o]) {
+                    continue;
+                }
+                int treeArc = inSource ? a ^ 1 : a;
+                if (net.residualCapacity(treeArc) > 0) {
+                    makeActive(q);
+                }
+                int qa = parentArc[q];
+                if (qa >= 0 && (inSource ? net.arcTail(qa) : net.arcHead(qa)) == o) {
+                    makeOrphan(q);
+                }
+            }
+            tree[o] = FREE;
+        }
+    }
+
+    /**
+     * Finds the number of tree arcs from q to its root, or INFINITE if the
+     * path to the root passes through an orphan, stamping every vertex on a
+     * complete path with its distance for the current stage.
+     *
+     * @param net the network
+     * @param q a vertex in a tree
+     * @param inSource true, if q is in the source tree
+     * @return the distance to the root
+     */
+    private int distanceToRoot(FlowGraph net, int q, boolean inSource) {
+        int d = 0;
+        int j = q;
+        while (timestamp[j] != time) {
+            int a = parentArc[j];
+            if (a == ORPHAN) {
+                return INFINITE;
+            }
+            if (a == ROOT) {
+                timestamp[j] = time;
+                dist[j] = 0;
+                break;
+            }
+            d++;
+            j = inSource ? net.arcTail(a) : net.arcHead(a);
+        }
+        d += dist[j];
+
+        int k = d;
+        for (j = q; timestamp[j] != time; j = inSource ? net.arcTail(parentArc[j]) : net.arcHead(parentArc[j])) {
+            timestamp[j] = time;
+            dist[j] = k--;
+        }
+        return d;
+    }
+}
@@ -0,0 +1,94 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class BreadthFirstPathSearch. Finds a shortest augmenting path with a
+ * queue-based breadth-first search over the residual arcs of a network. This
+ * is the search done by ResidualGraph.findAugmentingPath, run over int arrays.
+ */
+public class BreadthFirstPathSearch implements PathSearch {
+
+    /**
+     * The queue of vertices waiting to be expanded.
+     */
+    private int[] queue = new int[0];
+
+    /**
+     * The arc by which each reached vertex was first reached.
+     */
+    private int[] parentArc = new int[0];
+
+    /**
+     * visitedStamp[u] == stamp if and only if u has been reached in the current
+     * search, so the visited marks never need clearing.
+     */
+    private int[] visitedStamp = new int[0];
+
+    /**
+     * The stamp of the current search.
+     */
+    private int stamp;
+
+    @Override
+    public int findPath(FlowGraph net, int[] path) {
+        int n = net.getNumVertices();
+        if (queue.length < n) {
+            queue = new int[n];
+            parentArc = new int[n];
+            visitedStamp = new int[n];
+            stamp = 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(visitedStamp, 0);
+            stamp = 1;
+        }
+
+        int source = net.getSourceLabel();
+        int sink = net.getSinkLabel();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        visitedStamp[source] = stamp;
+
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                int a = net.getArc(i);
+                int v = net.arcHead(a);
+                if (visitedStamp[v] == stamp || net.residualCapacity(a) <= 0) {
+                    continue;
+                }
+                visitedStamp[v] = stamp;
+                parentArc[v] = a;
+                if (v == sink) {
+                    return tracePath(net, parentArc, path);
+                }
+                queue[tail++] = v;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the path from the source to the sink recorded in parentArc into
+     * path.
+     *
+     * @param net the network
+     * @param parentArc the arc by which each vertex on the path was reached
+     * @param path the array to receive the arcs
+     * @return the number of arcs in the path
+     */
+    static int tracePath(FlowGraph net, int[] parentArc, int[] path) {
+        int length = 0;
+        for (int v = net.getSinkLabel(); v != net.getSourceLabel(); v = net.arcTail(parentArc[v])) {
+            path[length++] = parentArc[v];
+        }
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = path[i];
+            path[i] = path[j];
+            path[j] = tmp;
+        }
+        return length;
+    }
+}
@@ -3,11 +3,22 @@ package networkFlow;
 import java.util.*;
 
 /**
- * The Class DirectedGraph. Represents a directed graph using both adjacency
- * lists and an adjacency matrix.
+ * The Class DirectedGraph. Represents a directed graph using primitive edge
+ * arrays and a compressed per-vertex arc index. The Vertex and Edge based
+ * methods are kept as a thin wrapper over the primitive representation.
+ *
+ * Every edge e gives rise to two arcs: the forward arc 2e from the tail to the
+ * head of e, and the backward arc 2e+1 from the head back to the tail. The arcs
+ * leaving vertex u are stored contiguously in arcList between getArcStart(u)
+ * (inclusive) and getArcEnd(u) (exclusive).
  */
 public class DirectedGraph {
 
+    /**
+     * Initial length of the edge arrays.
+     */
+    private static final int INITIAL_EDGE_CAPACITY = 16;
+
     /**
      * Number of vertices in the graph.
      */
@@ -19,17 +30,52 @@ public class DirectedGraph {
     protected Vertex[] vertices;
 
     /**
-     * Defines the adjacency lists of the graph as an array, with an element for
-     * each vertex v giving a linked list corresponding to v's adjacency list.
+     * Number of edges in the graph.
+     */
+    protected int numEdges;
+
+    /**
+     * The tail (source endpoint) label of each edge, indexed by edge id.
+     */
+    protected int[] edgeTail;
+
+    /**
+     * The head (target endpoint) label of each edge, indexed by edge id.
+     */
+    protected int[] edgeHead;
+
+    /**
+     * The capacity of each edge, indexed by edge id.
+     */
+    protected int[] edgeCap;
+
+    /**
+     * The flow through each edge, indexed by edge id.
+     */
+    protected int[] edgeFlow;
+
+    /**
+     * Offsets into arcList - the arcs leaving vertex u are held in
+     * arcList[arcStart[u]] .. arcList[arcStart[u + 1] - 1].
      */
-    protected ArrayList<LinkedList<Vertex>> adjLists;
+    protected int[] arcStart;
 
     /**
-     * Defines the adjacency matrix of the graph as a matrix whose (i,j)th entry
-     * is an edge - this is slightly non-standard but allows for efficient
-     * look-up of flows and capacities.
+     * The arcs of the graph grouped by tail vertex.
      */
-    protected Edge[][] adjMatrix;
+    protected int[] arcList;
+
+    /**
+     * True if edges have been added since arcStart and arcList were built.
+     */
+    protected boolean arcIndexDirty;
+
+    /**
+     * Edge objects handed out by the object API, created on first request so
+     * that repeated look-ups of the same edge return the same object. The
+     * array only grows when an edge object is asked for.
+     */
+    private Edge[] edgeObjects;
 
     /**
      * Constructor for directed graph class.
@@ -41,17 +87,17 @@ public class DirectedGraph {
         numVertices = n;
 
         vertices = new Vertex[numVertices];
-        adjLists = new ArrayList<LinkedList<Vertex>>();
-        adjMatrix = new Edge[numVertices][numVertices];
 
-        // initialise all adjacency lists to be empty
-        // initialise all entries in adjMatrix to be null
-        for (int u = 0; u < numVertices; u++) {
-            adjLists.add(new LinkedList<Vertex>());
-            for (int v = 0; v < numVertices; v++) {
-                adjMatrix[u][v] = null;
-            }
-        }
+        // initialise the edge arrays to be empty
+        numEdges = 0;
+        edgeTail = new int[INITIAL_EDGE_CAPACITY];
+        edgeHead = new int[INITIAL_EDGE_CAPACITY];
+        edgeCap = new int[INITIAL_EDGE_CAPACITY];
+        edgeFlow = new int[INITIAL_EDGE_CAPACITY];
+        edgeObjects = new Edge[INITIAL_EDGE_CAPACITY];
+        arcStart = new int[numVertices + 1];
+        arcList = new int[0];
+        arcIndexDirty = false;
     }
 
     /**
@@ -73,9 +119,132 @@ public class DirectedGraph {
      * @param targetEndpoint the target vertex
      */
     public void addEdge(Vertex sourceEndpoint, Vertex targetEndpoint) {
-        Edge e = new Edge(sourceEndpoint, targetEndpoint);
-        adjLists.get(sourceEndpoint.getLabel()).addLast(targetEndpoint);
-        adjMatrix[sourceEndpoint.getLabel()][targetEndpoint.getLabel()] = e;
+        addEdge(sourceEndpoint.getLabel(), targetEndpoint.getLabel());
+    }
+
+    /**
+     * Adds a new edge from vertex u to vertex v. Parallel edges are kept as
+     * separate edges.
+     *
+     * @param u the label of the source vertex
+     * @param v the label of the target vertex
+     * @return the id of the new edge
+     */
+    public int addEdge(int u, int v) {
+        return appendEdge(u, v, 0);
+    }
+
+    /**
+     * Appends an edge to the edge arrays, growing them if necessary.
+     *
+     * @param u the label of the source vertex
+     * @param v the label of the target vertex
+     * @param c the capacity of the edge
+     * @return the id of the new edge
+     */
+    protected int appendEdge(int u, int v, int c) {
+        if (numEdges == edgeTail.length) {
+            int newLength = Math.max(INITIAL_EDGE_CAPACITY, edgeTail.length * 2);
+            edgeTail = Arrays.copyOf(edgeTail, newLength);
+            edgeHead = Arrays.copyOf(edgeHead, newLength);
+            edgeCap = Arrays.copyOf(edgeCap, newLength);
+            edgeFlow = Arrays.copyOf(edgeFlow, newLength);
+        }
+        int e = numEdges++;
+        edgeTail[e] = u;
+        edgeHead[e] = v;
+        edgeCap[e] = c;
+        edgeFlow[e] = 0;
+        arcIndexDirty = true;
+        return e;
+    }
+
+    /**
+     * Replaces the edges of the graph with the m edges held in the given
+     * arrays, which the graph takes over, each carrying zero flow, and builds
+     * the arc index. Used by NetworkBuilder.
+     *
+     * @param tail the tail label of each edge
+     * @param head the head label of each edge
+     * @param cap the capacity of each edge
+     * @param m the number of edges
+     */
+    void adoptEdges(int[] tail, int[] head, int[] cap, int m) {
+        Arrays.fill(edgeObjects, 0, Math.min(numEdges, edgeObjects.length), null);
+        edgeTail = tail;
+        edgeHead = head;
+        edgeCap = cap;
+        edgeFlow = new int[tail.length];
+        numEdges = m;
+        arcIndexDirty = true;
+        ensureArcIndex();
+    }
+
+    /**
+     * Empties the graph and gives it n vertices, keeping the storage of the
+     * edge arrays, the arc index and the Vertex objects so that a graph can
+     * be refilled with one instance after another without allocating. Arrays
+     * only grow when n or the number of edges added afterwards exceeds what
+     * they already hold, and only the entries used by the previous instance
+     * are cleared. Edge objects handed out before the reset must not be used
+     * afterwards.
+     *
+     * @param n the number of vertices in the graph
+     */
+    public void reset(int n) {
+        Arrays.fill(edgeObjects, 0, Math.min(numEdges, edgeObjects.length), null);
+        numEdges = 0;
+        numVertices = n;
+        if (vertices.length < n) {
+            vertices = Arrays.copyOf(vertices, n);
+        }
+        // vertex objects only hold their label, so those of earlier instances
+        // can be kept
+        for (int i = 0; i < n; i++) {
+            if (vertices[i] == null) {
+                addVertex(i);
+            }
+        }
+        arcIndexDirty = true;
+    }
+
+    /**
+     * Rebuilds arcStart and arcList if edges have been added since they were
+     * last built. Arcs are grouped by tail with a counting sort, so the arcs of
+     * each vertex appear in the order in which their edges were added. The
+     * arrays of the previous index are reused if they are large enough.
+     */
+    protected void ensureArcIndex() {
+        if (!arcIndexDirty) {
+            return;
+        }
+        int numArcs = 2 * numEdges;
+        if (arcStart.length < numVertices + 1) {
+            arcStart = new int[numVertices + 1];
+        } else {
+            Arrays.fill(arcStart, 0, numVertices + 1, 0);
+        }
+        if (arcList.length < numArcs) {
+            arcList = new int[numArcs];
+        }
+        int[] start = arcStart;
+        for (int e = 0; e < numEdges; e++) {
+            start[edgeTail[e] + 1]++;
+            start[edgeHead[e] + 1]++;
+        }
+        for (int u = 0; u < numVertices; u++) {
+            start[u + 1] += start[u];
+        }
+        // start[u] serves as the insertion point for u's arcs, which leaves it
+        // holding the start of u + 1's arcs, so shift the offsets back after
+        for (int a = 0; a < numArcs; a++) {
+            arcList[start[arcTail(a)]++] = a;
+        }
+        for (int u = numVertices; u > 0; u--) {
+            start[u] = start[u - 1];
+        }
+        start[0] = 0;
+        arcIndexDirty = false;
     }
 
     /**
@@ -88,34 +257,195 @@ public class DirectedGraph {
     }
 
     /**
-     * Gets the adjacency list for a given vertex vv.
+     * Gets the number of edges in the graph.
+     *
+     * @return the number of edges in the graph
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Gets the label of the source endpoint of edge e.
+     *
+     * @param e the edge id
+     * @return the label of the source endpoint
+     */
+    public int getEdgeTail(int e) {
+        return edgeTail[e];
+    }
+
+    /**
+     * Gets the label of the target endpoint of edge e.
+     *
+     * @param e the edge id
+     * @return the label of the target endpoint
+     */
+    public int getEdgeHead(int e) {
+        return edgeHead[e];
+    }
+
+    /**
+     * Gets the index in the arc list of the first arc leaving vertex u.
+     *
+     * @param u the vertex label
+     * @return the first index of u's arcs
+     */
+    public int getArcStart(int u) {
+        ensureArcIndex();
+        return arcStart[u];
+    }
+
+    /**
+     * Gets the index in the arc list one past the last arc leaving vertex u.
+     *
+     * @param u the vertex label
+     * @return the end index (exclusive) of u's arcs
+     */
+    public int getArcEnd(int u) {
+        ensureArcIndex();
+        return arcStart[u + 1];
+    }
+
+    /**
+     * Gets the arc at index i of the arc list.
+     *
+     * @param i the index, between getArcStart(u) and getArcEnd(u) for some u
+     * @return the arc id
+     */
+    public int getArc(int i) {
+        ensureArcIndex();
+        return arcList[i];
+    }
+
+    /**
+     * Gets the edge that arc a belongs to.
+     *
+     * @param a the arc id
+     * @return the edge id
+     */
+    public static int arcEdge(int a) {
+        return a >> 1;
+    }
+
+    /**
+     * Returns true if arc a runs in the direction of its edge.
+     *
+     * @param a the arc id
+     * @return true, if a is a forward arc
+     */
+    public static boolean isForwardArc(int a) {
+        return (a & 1) == 0;
+    }
+
+    /**
+     * Gets the arc running in the opposite direction over the same edge.
+     *
+     * @param a the arc id
+     * @return the reverse arc id
+     */
+    public static int reverseArc(int a) {
+        return a ^ 1;
+    }
+
+    /**
+     * Gets the label of the vertex arc a leaves.
+     *
+     * @param a the arc id
+     * @return the tail label of a
+     */
+    public int arcTail(int a) {
+        return (a & 1) == 0 ? edgeTail[a >> 1] : edgeHead[a >> 1];
+    }
+
+    /**
+     * Gets the label of the vertex arc a enters.
+     *
+     * @param a the arc id
+     * @return the head label of a
+     */
+    public int arcHead(int a) {
+        return (a & 1) == 0 ? edgeHead[a >> 1] : edgeTail[a >> 1];
+    }
+
+    /**
+     * Finds an edge from vertex u to vertex v. If there are parallel edges the
+     * most recently added one is returned.
+     *
+     * @param u the label of the source vertex
+     * @param v the label of the target vertex
+     * @return the edge id, or -1 if there is no such edge
+     */
+    public int findEdge(int u, int v) {
+        ensureArcIndex();
+        for (int i = arcStart[u + 1] - 1; i >= arcStart[u]; i--) {
+            int a = arcList[i];
+            if ((a & 1) == 0 && edgeHead[a >> 1] == v) {
+                return a >> 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the Edge object wrapping edge e.
+     *
+     * @param e the edge id
+     * @return the edge object
+     */
+    public Edge getEdge(int e) {
+        if (e >= edgeObjects.length) {
+            edgeObjects = Arrays.copyOf(edgeObjects, edgeTail.length);
+        }
+        Edge edge = edgeObjects[e];
+        if (edge == null) {
+            edge = new Edge(this, e);
+            edgeObjects[e] = edge;
+        }
+        return edge;
+    }
+
+    /**
+     * Gets the adjacency list for a given vertex vv. The list is a copy built
+     * from the arc index, so changes to it do not affect the graph.
      *
      * @param vv the given vertex
      * @return the adjacency list
      */
     public LinkedList<Vertex> getAdjList(Vertex vv) {
-        return adjLists.get(vv.getLabel());
+        return getAdjListByLabel(vv.getLabel());
     }
 
     /**
-     * Gets the adjacency list for a given vertex with label v.
+     * Gets the adjacency list for a given vertex with label v. The list is a
+     * copy built from the arc index, so changes to it do not affect the graph.
      *
      * @param v the vertex label
      * @return the adjacency list
      */
     public LinkedList<Vertex> getAdjListByLabel(int v) {
-        return adjLists.get(v);
+        ensureArcIndex();
+        LinkedList<Vertex> adjList = new LinkedList<Vertex>();
+        for (int i = arcStart[v]; i < arcStart[v + 1]; i++) {
+            int a = arcList[i];
+            if ((a & 1) == 0) {
+                adjList.addLast(vertices[edgeHead[a >> 1]]);
+            }
+        }
+        return adjList;
     }
 
     /**
-     * Gets the adjacency matrix entry corresponding to vertices uu and vv.
+     * Gets the edge from uu to vv, in place of the adjacency matrix entry
+     * corresponding to vertices uu and vv.
      *
      * @param uu the first vertex
      * @param vv the second vertex
-     * @return the adjacency matrix entry
+     * @return the edge, or null if there is no edge from uu to vv
      */
     public Edge getAdjMatrixEntry(Vertex uu, Vertex vv) {
-        return adjMatrix[uu.getLabel()][vv.getLabel()];
+        int e = findEdge(uu.getLabel(), vv.getLabel());
+        return e == -1 ? null : getEdge(e);
     }
 
     /**
@@ -0,0 +1,216 @@
+package networkFlow;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/**
+ * The Class FlowCheckpoint. Saves the flow of a network part-way through a
+ * solve to a compact binary file and puts it back later, so a solve that is
+ * killed can resume from its last checkpoint rather than from zero flow.
+ *
+ * The file holds a header - a magic number, a format version, a fingerprint
+ * of the network's vertices, edges and capacities, the numbers of vertices
+ * and edges and the flow value - followed by the flow through each edge as an
+ * int, in the order of the forward arcs in the arc index. The flow is all the
+ * state an engine needs: the augmenting-path engines keep nothing else
+ * between paths, and Dinic's algorithm rebuilds its levels at the start of
+ * every phase. Files are written sequentially through a FileChannel to a
+ * temporary file that then replaces the checkpoint, so a kill mid-write
+ * leaves the previous checkpoint intact.
+ */
+public class FlowCheckpoint {
+
+    /**
+     * The first int of every checkpoint file.
+     */
+    private static final int MAGIC = 0x46464350;
+
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size in bytes of the buffer used for reading and writing.
+     */
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /**
+     * This class only has static members.
+     */
+    private FlowCheckpoint() {
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a fingerprint of the vertices, edges and
+     * capacities of a network, in arc index order. A checkpoint is only
+     * applied to a network with the same fingerprint.
+     *
+     * @param net the network
+     * @return the fingerprint
+     */
+    public static long fingerprint(FlowGraph net) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, net.getNumVertices());
+        hash = mix(hash, net.getSourceLabel());
+        hash = mix(hash, net.getSinkLabel());
+        for (int u = 0; u < net.getNumVertices(); u++) {
+            for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                int a = net.getArc(i);
+                if ((a & 1) == 0) {
+                    hash = mix(hash, u);
+                    hash = mix(hash, net.arcHead(a));
+                    hash = mix(hash, net.residualCapacity(a) + net.residualCapacity(a ^ 1));
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Folds an int into an FNV-1a hash.
+     *
+     * @param hash the hash so far
+     * @param x the value to add
+     * @return the new hash
+     */
+    private static long mix(long hash, int x) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (x >>> shift) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Writes the flow of net to a checkpoint file, replacing any earlier
+     * checkpoint only once the new one is complete.
+     *
+     * @param net the network, carrying a valid flow
+     * @param file the checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(FlowGraph net, Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong(fingerprint(net));
+            buffer.putInt(net.getNumVertices());
+            buffer.putInt(countEdges(net));
+            buffer.putInt(net.getValue());
+            for (int u = 0; u < net.getNumVertices(); u++) {
+                for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                    int a = net.getArc(i);
+                    if ((a & 1) != 0) {
+                        continue;
+                    }
+                    if (buffer.remaining() < 4) {
+                        drain(channel, buffer);
+                    }
+                    buffer.putInt(net.residualCapacity(a ^ 1));
+                }
+            }
+            drain(channel, buffer);
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Counts the edges of a network from its arc index.
+     *
+     * @param net the network
+     * @return the number of edges
+     */
+    private static int countEdges(FlowGraph net) {
+        long numArcs = 0;
+        for (int u = 0; u < net.getNumVertices(); u++) {
+            numArcs += net.getArcEnd(u) - net.getArcStart(u);
+        }
+        return (int) (numArcs / 2);
+    }
+
+    /**
+     * Writes the contents of the buffer to the channel and clears it.
+     *
+     * @param channel the channel
+     * @param buffer the buffer
+     * @throws IOException if the write fails
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Sets the flow of net to the flow saved in a checkpoint file. The file
+     * must have been written for a network with the same vertices, edges and
+     * capacities, in the same order.
+     *
+     * @param net the network
+     * @param file the checkpoint file
+     * @return the value of the restored flow
+     * @throws IOException if the file cannot be read
+     */
+    public static int read(FlowGraph net, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        buffer.limit(0);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            fill(channel, buffer, 28);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IllegalArgumentException(file + " is not a flow checkpoint");
+            }
+            long fingerprint = buffer.getLong();
+            int numVertices = buffer.getInt();
+            int numEdges = buffer.getInt();
+            int value = buffer.getInt();
+            if (numVertices != net.getNumVertices() || numEdges != countEdges(net) || fingerprint != fingerprint(net)) {
+                throw new IllegalArgumentException("Checkpoint " + file + " was written for a different network");
+            }
+            for (int u = 0; u < net.getNumVertices(); u++) {
+                for (int i = net.getArcStart(u); i < net.getArcEnd(u); i++) {
+                    int a = net.getArc(i);
+                    if ((a & 1) != 0) {
+                        continue;
+                    }
+                    if (buffer.remaining() < 4) {
+                        fill(channel, buffer, 4);
+                    }
+                    // push the difference so any flow already present is replaced
+                    net.pushFlow(a, buffer.getInt() - net.residualCapacity(a ^ 1));
+                }
+            }
+            if (net.getValue() != value || !net.isFlow()) {
+                throw new IllegalArgumentException("Checkpoint " + file + " does not hold a valid flow");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Refills the buffer from the channel, making sure at least the given
+     * number of bytes are available.
+     *
+     * @param channel the channel
+     * @param buffer the buffer, with its remaining bytes not yet read
+     * @param needed the number of bytes needed
+     * @throws IOException if the read fails or the file ends too soon
+     */
+    private static void fill(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Checkpoint file ends too soon");
+            }
+        }
+        buffer.flip();
+    }
+}
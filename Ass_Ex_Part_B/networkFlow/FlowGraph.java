@@ -0,0 +1,129 @@
+package networkFlow;
+
+/**
+ * The Interface FlowGraph. The primitive view of a network that the max-flow
+ * engines run over: vertices are int labels, each edge e has a forward arc 2e
+ * and a backward arc 2e+1, and the arcs leaving vertex u are listed between
+ * getArcStart(u) and getArcEnd(u). Implemented by Network on the heap and by
+ * MappedNetwork in memory-mapped files.
+ */
+public interface FlowGraph {
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    int getNumVertices();
+
+    /**
+     * Gets the label of the source vertex.
+     *
+     * @return the source label
+     */
+    int getSourceLabel();
+
+    /**
+     * Gets the label of the sink vertex.
+     *
+     * @return the sink label
+     */
+    int getSinkLabel();
+
+    /**
+     * Gets the index of the first arc leaving vertex u.
+     *
+     * @param u the vertex label
+     * @return the first index of u's arcs
+     */
+    int getArcStart(int u);
+
+    /**
+     * Gets the index one past the last arc leaving vertex u.
+     *
+     * @param u the vertex label
+     * @return the end index (exclusive) of u's arcs
+     */
+    int getArcEnd(int u);
+
+    /**
+     * Gets the arc at index i of the arc list.
+     *
+     * @param i the index
+     * @return the arc id
+     */
+    int getArc(int i);
+
+    /**
+     * Gets the label of the vertex arc a leaves.
+     *
+     * @param a the arc id
+     * @return the tail label of a
+     */
+    int arcTail(int a);
+
+    /**
+     * Gets the label of the vertex arc a enters.
+     *
+     * @param a the arc id
+     * @return the head label of a
+     */
+    int arcHead(int a);
+
+    /**
+     * Gets the residual capacity of arc a.
+     *
+     * @param a the arc id
+     * @return the residual capacity of a
+     */
+    int residualCapacity(int a);
+
+    /**
+     * Pushes the given amount of flow along arc a.
+     *
+     * @param a the arc id
+     * @param amount the amount of flow to push
+     */
+    void pushFlow(int a, int amount);
+
+    /**
+     * Gets the value of the flow.
+     *
+     * @return the value of the flow
+     */
+    int getValue();
+
+    /**
+     * Returns true if and only if the current flow is a valid flow.
+     *
+     * @return true, if the flow is valid
+     */
+    boolean isFlow();
+
+    /**
+     * Prints each edge as (u,v) c(u,v)/f(u,v), one line per edge.
+     */
+    void printFlow();
+
+    /**
+     * Calculates the bottleneck residual capacity of the given arcs and pushes
+     * that amount of flow along each of them.
+     *
+     * @param path the arcs of an augmenting path from source to sink
+     * @param length the number of arcs in path
+     * @return the amount by which the flow was increased
+     */
+    default int augmentArcs(int[] path, int length) {
+        int minimumCapacity = Integer.MAX_VALUE;
+        for (int i = 0; i < length; i++) {
+            int residual = residualCapacity(path[i]);
+            if (residual < minimumCapacity) {
+                minimumCapacity = residual;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            pushFlow(path[i], minimumCapacity);
+        }
+        return minimumCapacity;
+    }
+}
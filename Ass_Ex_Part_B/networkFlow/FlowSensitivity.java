@@ -0,0 +1,151 @@
+package networkFlow;
+
+/**
+ * The Class FlowSensitivity. Classifies every edge of a network carrying a
+ * maximum flow by whether it is used in every, some or no maximum flow.
+ *
+ * Any two maximum flows differ by a circulation in the residual graph of
+ * either of them, so the flow on an edge (u,v) can change between maximum
+ * flows exactly when u and v lie in the same strongly connected component of
+ * the residual graph. The components are found with a single run of Tarjan's
+ * algorithm, so the whole classification takes O(V+E) time. For edges of
+ * capacity 1, such as the student to project edges, the classification is
+ * exact; for larger capacities SOMETIMES_USED means the flow on the edge
+ * differs between maximum flows.
+ */
+public class FlowSensitivity {
+
+    /**
+     * The usage of an edge over all maximum flows.
+     */
+    public enum Usage {
+        /** The edge carries flow in every maximum flow. */
+        ALWAYS_USED,
+        /** The edge carries flow in some but not all maximum flows. */
+        SOMETIMES_USED,
+        /** The edge carries flow in no maximum flow. */
+        NEVER_USED
+    }
+
+    /**
+     * The network that was analysed.
+     */
+    private final Network net;
+
+    /**
+     * The strongly connected component of each vertex in the residual graph.
+     */
+    private final int[] component;
+
+    /**
+     * Instantiates a new FlowSensitivity object, computing the strongly
+     * connected components of the residual graph of net. The flow in net must
+     * be a maximum flow.
+     *
+     * @param net the network
+     */
+    public FlowSensitivity(Network net) {
+        this.net = net;
+        this.component = residualComponents(net);
+    }
+
+    /**
+     * Labels the strongly connected components of the residual graph of net
+     * using an iterative version of Tarjan's algorithm over the arc arrays.
+     *
+     * @param net the network
+     * @return the component number of each vertex
+     */
+    private static int[] residualComponents(Network net) {
+        net.ensureArcIndex();
+        int n = net.numVertices;
+        int[] component = new int[n];
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] nextArc = new int[n];
+        int[] callStack = new int[n];
+        int[] sccStack = new int[n];
+        boolean[] onStack = new boolean[n];
+        int counter = 0;
+        int numComponents = 0;
+        int sccTop = 0;
+
+        // index[u] == 0 means u has not been visited; indices start at 1
+        for (int root = 0; root < n; root++) {
+            if (index[root] != 0) {
+                continue;
+            }
+            int callTop = 0;
+            callStack[callTop++] = root;
+            index[root] = low[root] = ++counter;
+            nextArc[root] = net.arcStart[root];
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+                if (nextArc[u] < net.arcStart[u + 1]) {
+                    int a = net.arcList[nextArc[u]++];
+                    if (net.residualCapacity(a) <= 0) {
+                        continue;
+                    }
+                    int v = net.arcHead(a);
+                    if (index[v] == 0) {
+                        index[v] = low[v] = ++counter;
+                        nextArc[v] = net.arcStart[v];
+                        sccStack[sccTop++] = v;
+                        onStack[v] = true;
+                        callStack[callTop++] = v;
+                    } else if (onStack[v] && index[v] < low[u]) {
+                        low[u] = index[v];
+                    }
+                } else {
+                    // all arcs of u explored - pop u and pass its low link up
+                    callTop--;
+                    if (low[u] == index[u]) {
+                        int v;
+                        do {
+                            v = sccStack[--sccTop];
+                            onStack[v] = false;
+                            component[v] = numComponents;
+                        } while (v != u);
+                        numComponents++;
+                    }
+                    if (callTop > 0) {
+                        int parent = callStack[callTop - 1];
+                        if (low[u] < low[parent]) {
+                            low[parent] = low[u];
+                        }
+                    }
+                }
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Gets the strongly connected component of vertex u in the residual graph.
+     *
+     * @param u the vertex label
+     * @return the component number
+     */
+    public int getComponent(int u) {
+        return component[u];
+    }
+
+    /**
+     * Classifies edge e by its usage over all maximum flows.
+     *
+     * @param e the edge id
+     * @return the usage of e
+     */
+    public Usage getUsage(int e) {
+        if (net.edgeCap[e] == 0) {
+            return Usage.NEVER_USED;
+        }
+        if (component[net.edgeTail[e]] == component[net.edgeHead[e]]) {
+            return Usage.SOMETIMES_USED;
+        }
+        return (net.edgeFlow[e] > 0)? Usage.ALWAYS_USED : Usage.NEVER_USED;
+    }
+}
@@ -0,0 +1,215 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class GraphStatistics. Summary statistics of a network used by
+ * MaxFlowSolvers to choose an engine. All of them come from one pass over the
+ * edge arrays and one breadth-first search from the source, so gathering them
+ * costs far less than any solve.
+ */
+public class GraphStatistics {
+
+    /**
+     * Number of vertices.
+     */
+    private final int numVertices;
+
+    /**
+     * Number of edges.
+     */
+    private final int numEdges;
+
+    /**
+     * Largest edge capacity.
+     */
+    private final int maxCapacity;
+
+    /**
+     * Number of edges with capacity 1.
+     */
+    private final int unitEdges;
+
+    /**
+     * True if every edge joins vertices in adjacent breadth-first layers from
+     * the source, which makes the underlying undirected graph bipartite.
+     */
+    private final boolean layered;
+
+    /**
+     * Number of breadth-first layers reachable from the source.
+     */
+    private final int numLayers;
+
+    /**
+     * Number of vertices in the widest layer.
+     */
+    private final int maxLayerWidth;
+
+    /**
+     * The largest, over pairs of consecutive layers of at least two vertices,
+     * of the number of edges between them divided by the product of their
+     * sizes.
+     */
+    private final double maxLayerDensity;
+
+    /**
+     * Instantiates a new GraphStatistics object by scanning net.
+     *
+     * @param net the network
+     */
+    public GraphStatistics(Network net) {
+        net.ensureArcIndex();
+        numVertices = net.numVertices;
+        numEdges = net.numEdges;
+
+        int max = 0;
+        int unit = 0;
+        for (int e = 0; e < numEdges; e++) {
+            max = Math.max(max, net.edgeCap[e]);
+            if (net.edgeCap[e] == 1) {
+                unit++;
+            }
+        }
+        maxCapacity = max;
+        unitEdges = unit;
+
+        // layer the vertices by undirected breadth-first distance from the source
+        int[] layer = new int[numVertices];
+        Arrays.fill(layer, -1);
+        int[] queue = new int[numVertices];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = net.sourceLabel;
+        layer[net.sourceLabel] = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = net.arcStart[u]; i < net.arcStart[u + 1]; i++) {
+                int v = net.arcHead(net.arcList[i]);
+                if (layer[v] == -1) {
+                    layer[v] = layer[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        numLayers = (tail == 0)? 0 : layer[queue[tail - 1]] + 1;
+
+        int[] width = new int[numLayers + 1];
+        for (int u = 0; u < numVertices; u++) {
+            if (layer[u] != -1) {
+                width[layer[u]]++;
+            }
+        }
+        int widest = 0;
+        for (int w : width) {
+            widest = Math.max(widest, w);
+        }
+        maxLayerWidth = widest;
+
+        boolean adjacentOnly = true;
+        long[] between = new long[numLayers + 1];
+        for (int e = 0; e < numEdges; e++) {
+            int lu = layer[net.edgeTail[e]];
+            int lv = layer[net.edgeHead[e]];
+            if (lu == -1 || lv == -1) {
+                continue;
+            }
+            if (Math.abs(lu - lv) != 1) {
+                adjacentOnly = false;
+            } else {
+                between[Math.min(lu, lv)]++;
+            }
+        }
+        layered = adjacentOnly;
+
+        double density = 0;
+        for (int l = 0; l + 1 < numLayers; l++) {
+            // a single vertex joined to a whole layer says nothing about density
+            if (width[l] < 2 || width[l + 1] < 2) {
+                continue;
+            }
+            density = Math.max(density, between[l] / ((double) width[l] * width[l + 1]));
+        }
+        maxLayerDensity = density;
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Gets the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Gets the largest edge capacity.
+     *
+     * @return the largest capacity
+     */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * Gets the fraction of edges with capacity 1.
+     *
+     * @return the unit capacity share, between 0 and 1
+     */
+    public double getUnitCapacityShare() {
+        return (numEdges == 0)? 0 : unitEdges / (double) numEdges;
+    }
+
+    /**
+     * Returns true if every edge joins adjacent breadth-first layers, so the
+     * network is bipartite.
+     *
+     * @return true, if the network is layered
+     */
+    public boolean isLayered() {
+        return layered;
+    }
+
+    /**
+     * Gets the number of breadth-first layers reachable from the source.
+     *
+     * @return the number of layers
+     */
+    public int getNumLayers() {
+        return numLayers;
+    }
+
+    /**
+     * Gets the number of vertices in the widest layer.
+     *
+     * @return the widest layer size
+     */
+    public int getMaxLayerWidth() {
+        return maxLayerWidth;
+    }
+
+    /**
+     * Gets the density of the densest pair of consecutive layers.
+     *
+     * @return the layer density, between 0 and 1
+     */
+    public double getMaxLayerDensity() {
+        return maxLayerDensity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("V=%d E=%d maxCap=%d unit=%.2f layered=%b layers=%d width=%d density=%.3f",
+                numVertices, numEdges, maxCapacity, getUnitCapacityShare(), layered, numLayers,
+                maxLayerWidth, maxLayerDensity);
+    }
+}
@@ -0,0 +1,501 @@
+package networkFlow;
+
+/**
+ * The Class LinkCutDinicSolver. Dinic's algorithm with the blocking flow of
+ * each phase found using Sleator and Tarjan's dynamic trees, so that each
+ * augmentation costs O(log V) amortised rather than the length of the path.
+ *
+ * Within a phase every vertex may hang from the next vertex along its
+ * current arc in the level graph, and the value of the tree edge is the
+ * residual capacity of that arc. The root of the tree holding the source is
+ * the end of the best path found so far: if it is the sink, the minimum
+ * along the tree path is pushed by lowering every value on it at once and
+ * the saturated tree edges are cut; otherwise the root either links to a
+ * further vertex or, having no admissible arc left, is removed from the
+ * level graph together with the tree edges into it. Flow on a tree edge is
+ * only written to the network when the edge is cut, or when a progress
+ * listener is due, so the network carries a valid flow whenever the solve
+ * returns or reports progress. The blocking flow takes
+ * O(E log V) time, which pays off on deep networks where plain Dinic walks
+ * the same long prefixes for every path.
+ *
+ * The trees are splay trees over the vertex paths, held in primitive arrays
+ * indexed by vertex label, with NIL for no vertex.
+ */
+public class LinkCutDinicSolver extends DinicSolver {
+
+    /**
+     * Stands for no vertex in the tree arrays.
+     */
+    private static final int NIL = -1;
+
+    /**
+     * The value of a vertex with no tree edge, larger than any sum of
+     * capacities.
+     */
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+
+    /**
+     * The number of links, augmentations and dead ends between checks of the
+     * control, minus one.
+     */
+    private static final int CHECK_MASK = 1023;
+
+    /**
+     * The left child of each vertex in its splay tree - the part of its path
+     * nearer the root.
+     */
+    private int[] left = new int[0];
+
+    /**
+     * The right child of each vertex in its splay tree - the part of its path
+     * further from the root.
+     */
+    private int[] right = new int[0];
+
+    /**
+     * The splay tree parent of each vertex, or, for the root of a splay tree,
+     * the vertex its path hangs from.
+     */
+    private int[] up = new int[0];
+
+    /**
+     * The residual capacity left on the tree edge of each vertex, or INFINITE
+     * if it has none.
+     */
+    private long[] val = new long[0];
+
+    /**
+     * The smallest val in the splay subtree of each vertex.
+     */
+    private long[] min = new long[0];
+
+    /**
+     * An amount still to be added to val and min of the children of each
+     * vertex.
+     */
+    private long[] lazy = new long[0];
+
+    /**
+     * The arc of the tree edge of each vertex, or -1 if it has none.
+     */
+    private int[] treeArc = new int[0];
+
+    /**
+     * The residual capacity of the tree arc of each vertex when its flow was
+     * last written to the network.
+     */
+    private int[] linkedCapacity = new int[0];
+
+    /**
+     * Scratch stack for pushing lazy additions down before a splay.
+     */
+    private int[] stack = new int[0];
+
+    /**
+     * The vertices that may have a tree edge, each listed once.
+     */
+    private int[] linked = new int[0];
+
+    /**
+     * Whether each vertex is in linked.
+     */
+    private boolean[] listed = new boolean[0];
+
+    /**
+     * The number of entries in linked.
+     */
+    private int numLinked;
+
+    @Override
+    public String getName() {
+        return "linkcut";
+    }
+
+    @Override
+    protected void allocate(int n) {
+        super.allocate(n);
+        if (left.length < n) {
+            left = new int[n];
+            right = new int[n];
+            up = new int[n];
+            val = new long[n];
+            min = new long[n];
+            lazy = new long[n];
+            treeArc = new int[n];
+            linkedCapacity = new int[n];
+            stack = new int[n];
+            linked = new int[n];
+            listed = new boolean[n];
+        }
+    }
+
+    /**
+     * Finds a blocking flow of the level graph with dynamic trees. Stops
+     * early, leaving the phase unfinished, if the flow reaches the control's
+     * upper bound or the control asks the engine to stop; in either case
+     * every tree edge is cut before returning, so that all the flow found is
+     * in the network.
+     *
+     * @param net the network
+     * @return the amount by which the flow was increased
+     */
+    @Override
+    protected int blockingFlow(FlowGraph net) {
+        int n = net.getNumVertices();
+        for (int u = 0; u < n; u++) {
+            currentArc[u] = net.getArcStart(u);
+            left[u] = right[u] = up[u] = NIL;
+            val[u] = min[u] = INFINITE;
+            lazy[u] = 0;
+            treeArc[u] = -1;
+            listed[u] = false;
+        }
+        numLinked = 0;
+        int source = net.getSourceLabel();
+        int sink = net.getSinkLabel();
+        long upperBound = control.getUpperBound();
+        int total = 0;
+        int events = 0;
+
+        while (true) {
+            int v = findRoot(source);
+            if (v == sink) {
+                // push the bottleneck along the tree path and cut the
+                // saturated tree edges
+                access(source);
+                long bottleneck = min[source];
+                addToPath(source, -bottleneck);
+                total += (int) bottleneck;
+                value += (int) bottleneck;
+                while (true) {
+                    access(source);
+                    if (min[source] > 0) {
+                        break;
+                    }
+                    cut(net, findMin(source));
+                }
+                if (value >= upperBound) {
+                    break;
+                }
+            } else {
+                int end = net.getArcEnd(v);
+                int i = currentArc[v];
+                while (i < end) {
+                    int a = net.getArc(i);
+                    int w = net.arcHead(a);
+                    if (level[w] == level[v] + 1 && net.residualCapacity(a) > 0) {
+                        break;
+                    }
+                    i++;
+                }
+                currentArc[v] = i;
+
+                if (i < end) {
+                    // extend the path from v along its current arc
+                    int a = net.getArc(i);
+                    link(v, net.arcHead(a), a, net.residualCapacity(a));
+                } else {
+                    // dead end - remove v from the level graph with the tree
+                    // edges into it
+                    level[v] = -1;
+                    if (v == source) {
+                        break;
+                    }
+                    for (int j = net.getArcStart(v); j < end; j++) {
+                        int in = net.getArc(j) ^ 1;
+                        int u = net.arcTail(in);
+                        if (treeArc[u] == in) {
+                            cut(net, u);
+                        }
+                    }
+                }
+            }
+            if ((++events & CHECK_MASK) == 0) {
+                if (control.isProgressDue()) {
+                    writeFlow(net);
+                }
+                if (control.shouldStop(value)) {
+                    break;
+                }
+            }
+        }
+        cutAll(net);
+        return total;
+    }
+
+    /**
+     * Cuts every tree edge, writing all the flow pushed along them to the
+     * network.
+     *
+     * @param net the network
+     */
+    private void cutAll(FlowGraph net) {
+        for (int k = 0; k < numLinked; k++) {
+            int v = linked[k];
+            if (treeArc[v] != -1) {
+                cut(net, v);
+            }
+            listed[v] = false;
+        }
+        numLinked = 0;
+    }
+
+    /**
+     * Writes the flow pushed along every tree edge so far to the network,
+     * keeping the trees as they are, and drops the vertices with no tree
+     * edge from linked.
+     *
+     * @param net the network
+     */
+    private void writeFlow(FlowGraph net) {
+        int kept = 0;
+        for (int k = 0; k < numLinked; k++) {
+            int v = linked[k];
+            if (treeArc[v] == -1) {
+                listed[v] = false;
+                continue;
+            }
+            access(v);
+            int pushed = linkedCapacity[v] - (int) val[v];
+            if (pushed > 0) {
+                net.pushFlow(treeArc[v], pushed);
+                linkedCapacity[v] = (int) val[v];
+            }
+            linked[kept++] = v;
+        }
+        numLinked = kept;
+    }
+
+    /**
+     * Hangs the tree root v from w by arc a.
+     *
+     * @param v the root of its tree
+     * @param w the vertex to hang it from
+     * @param a the arc from v to w
+     * @param capacity the residual capacity of a
+     */
+    private void link(int v, int w, int a, int capacity) {
+        access(v);
+        val[v] = capacity;
+        update(v);
+        up[v] = w;
+        treeArc[v] = a;
+        linkedCapacity[v] = capacity;
+        if (!listed[v]) {
+            listed[v] = true;
+            linked[numLinked++] = v;
+        }
+    }
+
+    /**
+     * Removes the tree edge of v, writing the flow pushed along it to the
+     * network.
+     *
+     * @param net the network
+     * @param v a vertex with a tree edge
+     */
+    private void cut(FlowGraph net, int v) {
+        access(v);
+        int pushed = linkedCapacity[v] - (int) val[v];
+        if (pushed > 0) {
+            net.pushFlow(treeArc[v], pushed);
+        }
+        int l = left[v];
+        if (l != NIL) {
+            up[l] = NIL;
+            left[v] = NIL;
+        }
+        val[v] = INFINITE;
+        update(v);
+        treeArc[v] = -1;
+    }
+
+    /**
+     * Finds the root of the tree holding v.
+     *
+     * @param v the vertex
+     * @return the root
+     */
+    private int findRoot(int v) {
+        access(v);
+        int r = v;
+        push(r);
+        while (left[r] != NIL) {
+            r = left[r];
+            push(r);
+        }
+        splay(r);
+        return r;
+    }
+
+    /**
+     * Finds a vertex on the path from v to its root with the smallest value,
+     * after access(v).
+     *
+     * @param v the vertex, at the root of its splay tree
+     * @return a vertex with the smallest value on the path
+     */
+    private int findMin(int v) {
+        long target = min[v];
+        int x = v;
+        while (true) {
+            push(x);
+            if (left[x] != NIL && min[left[x]] == target) {
+                x = left[x];
+            } else if (val[x] == target) {
+                break;
+            } else {
+                x = right[x];
+            }
+        }
+        splay(x);
+        return x;
+    }
+
+    /**
+     * Adds delta to the value of every vertex on the path from v to its
+     * root.
+     *
+     * @param v the vertex
+     * @param delta the amount to add
+     */
+    private void addToPath(int v, long delta) {
+        access(v);
+        apply(v, delta);
+    }
+
+    /**
+     * Makes the path from the root to v the preferred path, with v at the
+     * root of its splay tree and nothing to its right.
+     *
+     * @param v the vertex
+     */
+    private void access(int v) {
+        int last = NIL;
+        for (int y = v; y != NIL; y = up[y]) {
+            splay(y);
+            right[y] = last;
+            update(y);
+            last = y;
+        }
+        splay(v);
+    }
+
+    /**
+     * Returns true if x is the root of its splay tree.
+     *
+     * @param x the vertex
+     * @return true, if x has no splay tree parent
+     */
+    private boolean isSplayRoot(int x) {
+        int p = up[x];
+        return p == NIL || (left[p] != x && right[p] != x);
+    }
+
+    /**
+     * Moves x to the root of its splay tree.
+     *
+     * @param x the vertex
+     */
+    private void splay(int x) {
+        // push pending additions down the path from the splay root to x
+        int top = 0;
+        stack[top++] = x;
+        for (int y = x; !isSplayRoot(y); y = up[y]) {
+            stack[top++] = up[y];
+        }
+        while (top > 0) {
+            push(stack[--top]);
+        }
+
+        while (!isSplayRoot(x)) {
+            int p = up[x];
+            if (!isSplayRoot(p)) {
+                int g = up[p];
+                boolean zigZig = (left[g] == p) == (left[p] == x);
+                rotate(zigZig ? p : x);
+            }
+            rotate(x);
+        }
+    }
+
+    /**
+     * Rotates x above its splay tree parent.
+     *
+     * @param x the vertex
+     */
+    private void rotate(int x) {
+        int p = up[x];
+        int g = up[p];
+        if (!isSplayRoot(p)) {
+            if (left[g] == p) {
+                left[g] = x;
+            } else {
+                right[g] = x;
+            }
+        }
+        up[x] = g;
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != NIL) {
+                up[right[x]] = p;
+            }
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != NIL) {
+                up[left[x]] = p;
+            }
+            left[x] = p;
+        }
+        up[p] = x;
+        update(p);
+        update(x);
+    }
+
+    /**
+     * Recomputes min[x] from x and its children.
+     *
+     * @param x the vertex
+     */
+    private void update(int x) {
+        long m = val[x];
+        if (left[x] != NIL && min[left[x]] < m) {
+            m = min[left[x]];
+        }
+        if (right[x] != NIL && min[right[x]] < m) {
+            m = min[right[x]];
+        }
+        min[x] = m;
+    }
+
+    /**
+     * Adds delta to the value of x and everything in its splay subtree.
+     *
+     * @param x the vertex
+     * @param delta the amount to add
+     */
+    private void apply(int x, long delta) {
+        val[x] += delta;
+        min[x] += delta;
+        lazy[x] += delta;
+    }
+
+    /**
+     * Passes the pending addition of x on to its children.
+     *
+     * @param x the vertex
+     */
+    private void push(int x) {
+        if (lazy[x] != 0) {
+            if (left[x] != NIL) {
+                apply(left[x], lazy[x]);
+            }
+            if (right[x] != NIL) {
+                apply(right[x], lazy[x]);
+            }
+            lazy[x] = 0;
+        }
+    }
+}
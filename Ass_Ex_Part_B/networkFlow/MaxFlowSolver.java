@@ -0,0 +1,46 @@
+package networkFlow;
+
+/**
+ * The Interface MaxFlowSolver. An engine that computes a maximum flow in a
+ * network, starting from whatever valid flow the network already carries.
+ * Engines are registered with, and created by, MaxFlowSolvers.
+ */
+public interface MaxFlowSolver {
+
+    /**
+     * Gets the name the engine is registered under.
+     *
+     * @return the engine name
+     */
+    String getName();
+
+    /**
+     * Returns true if the engine only runs on a Network, rather than on any
+     * FlowGraph such as a FlowScenario or MappedNetwork.
+     *
+     * @return true, if the engine needs a Network
+     */
+    default boolean needsNetwork() {
+        return false;
+    }
+
+    /**
+     * Increases the flow in net to a maximum flow.
+     *
+     * @param net the network, carrying a valid flow
+     * @return the value of the maximum flow
+     */
+    default int solve(FlowGraph net) {
+        return solve(net, new SolveControl());
+    }
+
+    /**
+     * Increases the flow in net until it is a maximum flow or control asks
+     * the engine to stop.
+     *
+     * @param net the network, carrying a valid flow
+     * @param control the settings steering the solve
+     * @return the value of the flow when the engine stopped
+     */
+    int solve(FlowGraph net, SolveControl control);
+}
@@ -6,7 +6,7 @@ import java.util.*;
 /**
  * The Class Network. Represents a network - inherits from DirectedGraph class.
  */
-public class Network extends DirectedGraph {
+public class Network extends DirectedGraph implements FlowGraph {
 
     /**
      * The source vertex of the network.
@@ -49,6 +49,22 @@ public class Network extends DirectedGraph {
         }
     }
 
+    /**
+     * Empties the network and gives it n vertices, keeping its storage - see
+     * DirectedGraph.reset. The source keeps label 0 and the sink becomes
+     * vertex n - 1.
+     *
+     * @param n the number of vertices, at least 2
+     */
+    @Override
+    public void reset(int n) {
+        super.reset(n);
+        sourceLabel = 0;
+        source = vertices[sourceLabel];
+        sinkLabel = numVertices - 1;
+        sink = vertices[sinkLabel];
+    }
+
     /**
      * Gets the source vertex.
      *
@@ -67,6 +83,24 @@ public class Network extends DirectedGraph {
         return sink;
     }
 
+    /**
+     * Gets the label of the source vertex.
+     *
+     * @return the source label
+     */
+    public int getSourceLabel() {
+        return sourceLabel;
+    }
+
+    /**
+     * Gets the label of the sink vertex.
+     *
+     * @return the sink label
+     */
+    public int getSinkLabel() {
+        return sinkLabel;
+    }
+
     /**
      * Adds the edge with specified source and target vertices and capacity.
      *
@@ -75,9 +109,20 @@ public class Network extends DirectedGraph {
      * @param capacity the capacity of the edge
      */
     public void addEdge(Vertex sourceEndpoint, Vertex targetEndpoint, int capacity) {
-        Edge e = new Edge(sourceEndpoint, targetEndpoint, capacity);
-        adjLists.get(sourceEndpoint.getLabel()).addLast(targetEndpoint);
-        adjMatrix[sourceEndpoint.getLabel()][targetEndpoint.getLabel()] = e;
+        addEdge(sourceEndpoint.getLabel(), targetEndpoint.getLabel(), capacity);
+    }
+
+    /**
+     * Adds the edge from vertex u to vertex v with the given capacity and zero
+     * flow. Parallel edges are kept as separate edges.
+     *
+     * @param u the label of the source endpoint
+     * @param v the label of the target endpoint
+     * @param capacity the capacity of the edge
+     * @return the id of the new edge
+     */
+    public int addEdge(int u, int v, int capacity) {
+        return appendEdge(u, v, capacity);
     }
 
     /**
@@ -89,7 +134,7 @@ public class Network extends DirectedGraph {
      * @param flow the flow of the edge
      */
     public void setFlow(Vertex sourceEndpoint, Vertex targetEndpoint, int flow) {
-        adjMatrix[sourceEndpoint.getLabel()][targetEndpoint.getLabel()].setFlow(flow);
+        edgeFlow[findEdge(sourceEndpoint.getLabel(), targetEndpoint.getLabel())] = flow;
     }
 
     /**
@@ -100,7 +145,102 @@ public class Network extends DirectedGraph {
      * @return the capacity of the given edge
      */
     public int getEdgeCapacity(Vertex sourceEndpoint, Vertex targetEndpoint) {
-        return adjMatrix[sourceEndpoint.getLabel()][targetEndpoint.getLabel()].getCap();
+        return edgeCap[findEdge(sourceEndpoint.getLabel(), targetEndpoint.getLabel())];
+    }
+
+    /**
+     * Gets the capacity of edge e.
+     *
+     * @param e the edge id
+     * @return the capacity of e
+     */
+    public int getEdgeCapacity(int e) {
+        return edgeCap[e];
+    }
+
+    /**
+     * Sets the capacity of edge e.
+     *
+     * @param e the edge id
+     * @param capacity the new capacity
+     */
+    public void setEdgeCapacity(int e, int capacity) {
+        edgeCap[e] = capacity;
+    }
+
+    /**
+     * Gets the flow through edge e.
+     *
+     * @param e the edge id
+     * @return the flow through e
+     */
+    public int getEdgeFlow(int e) {
+        return edgeFlow[e];
+    }
+
+    /**
+     * Sets the flow through edge e. This does not do any checking for
+     * validity of the input flow.
+     *
+     * @param e the edge id
+     * @param flow the new flow
+     */
+    public void setEdgeFlow(int e, int flow) {
+        edgeFlow[e] = flow;
+    }
+
+    /**
+     * Copies the flow through every edge, so that it can later be put back
+     * with restoreFlow.
+     *
+     * @return the flow through each edge, indexed by edge id
+     */
+    public int[] saveFlow() {
+        return Arrays.copyOf(edgeFlow, numEdges);
+    }
+
+    /**
+     * Sets the flow through every edge from a copy made by saveFlow. This
+     * does not do any checking for validity of the input flow.
+     *
+     * @param flow the flow through each edge, indexed by edge id
+     */
+    public void restoreFlow(int[] flow) {
+        System.arraycopy(flow, 0, edgeFlow, 0, numEdges);
+    }
+
+    /**
+     * Sets the flow through every edge to zero.
+     */
+    public void clearFlow() {
+        Arrays.fill(edgeFlow, 0, numEdges, 0);
+    }
+
+    /**
+     * Gets the residual capacity of arc a: the unused capacity of its edge for
+     * a forward arc, or the flow through its edge for a backward arc.
+     *
+     * @param a the arc id
+     * @return the residual capacity of a
+     */
+    public int residualCapacity(int a) {
+        int e = a >> 1;
+        return (a & 1) == 0 ? edgeCap[e] - edgeFlow[e] : edgeFlow[e];
+    }
+
+    /**
+     * Pushes the given amount of flow along arc a, increasing the flow on its
+     * edge for a forward arc and cancelling flow for a backward arc.
+     *
+     * @param a the arc id
+     * @param amount the amount of flow to push
+     */
+    public void pushFlow(int a, int amount) {
+        if ((a & 1) == 0) {
+            edgeFlow[a >> 1] += amount;
+        } else {
+            edgeFlow[a >> 1] -= amount;
+        }
     }
 
     /**
@@ -117,83 +257,95 @@ public class Network extends DirectedGraph {
                 minimumCapacity = edge.getCap();
         }
         for(Edge edge : path){
-            Vertex source = edge.getSourceVertex();
-            Vertex target = edge.getTargetVertex();
-            Edge networkEdge = this.getAdjMatrixEntry(source, target);
-            if(this.getAdjList(source).contains(target) && networkEdge.getFlow() + minimumCapacity <= networkEdge.getCap()){
-                setFlow(source, target, networkEdge.getFlow() + minimumCapacity);
-            } else {
-                setFlow(target, source, this.getAdjMatrixEntry(target, source).getFlow() - minimumCapacity);
-            }
+            int source = edge.getSourceVertex().getLabel();
+            int target = edge.getTargetVertex().getLabel();
+            pushFlow(findResidualArc(source, target, minimumCapacity), minimumCapacity);
         }
 
     }
 
+    /**
+     * Finds an arc from u to v with residual capacity of at least amount,
+     * preferring forward arcs, so that the flow on a path through a residual
+     * graph lands on the right one of several parallel edges.
+     *
+     * @param u the label of the tail vertex
+     * @param v the label of the head vertex
+     * @param amount the residual capacity needed
+     * @return the arc id
+     */
+    private int findResidualArc(int u, int v, int amount) {
+        ensureArcIndex();
+        int backwardArc = -1;
+        for (int i = arcStart[u]; i < arcStart[u + 1]; i++) {
+            int a = arcList[i];
+            if (arcHead(a) == v && residualCapacity(a) >= amount) {
+                if ((a & 1) == 0) {
+                    return a;
+                }
+                if (backwardArc == -1) {
+                    backwardArc = a;
+                }
+            }
+        }
+        return backwardArc;
+    }
+
     /**
      * Returns true if and only if the assignment of integers to the flow fields
      * of each edge in the network is a valid flow.
      *
+     * The capacity check and the conservation check are each a branch-free
+     * pass over contiguous arrays, ORing the values that must not be negative
+     * or must be zero into one accumulator, which the JIT compiles to vector
+     * instructions. Only the sums into each vertex's balance are scattered.
+     *
      * @return true, if the assignment is a valid flow
      */
     public boolean isFlow() {
-        Boolean isFlow = true;
-
-        for(int i = 0; i < adjMatrix.length; i++) {
-            for(int j = 0; j < adjMatrix[i].length; j++) {
-                if((adjMatrix[i][j] != null) && (adjMatrix[i][j].getFlow() > adjMatrix[i][j].getCap())) {
-                    return false;
-                }
-            }
+        // a flow above capacity leaves a negative difference, so the sign bit
+        // of the OR of all differences tells whether any edge is over capacity
+        int overCapacity = 0;
+        for (int e = 0; e < numEdges; e++) {
+            overCapacity |= edgeCap[e] - edgeFlow[e];
+        }
+        if (overCapacity < 0) {
+            return false;
         }
-
 
         // check there is no incoming flow to the source vertex
-        int inFlow = 0;
-        for (int j = 0; j < adjMatrix.length; j++) {
-            if(adjMatrix[j][source.getLabel()] != null) {
-                inFlow += adjMatrix[j][source.getLabel()].getFlow();
+        // and no outgoing flow from the sink vertex - the edges into the
+        // source are the backward arcs of its row, and the edges out of the
+        // sink the forward arcs of its row
+        ensureArcIndex();
+        for (int i = arcStart[sourceLabel]; i < arcStart[sourceLabel + 1]; i++) {
+            int a = arcList[i];
+            if ((a & 1) != 0 && edgeFlow[a >> 1] != 0) {
+                return false;
             }
         }
-        if(inFlow != 0) {
-            return false;
-        }
-
-        //check no outgoing flow from the sink vertex
-
-
-        int outFlow = 0;
-        for (int j = 0; j < adjMatrix[sink.getLabel()].length; j++) {
-            if(adjMatrix[sink.getLabel()][j] != null) {
-                outFlow += adjMatrix[sink.getLabel()][j].getFlow();
+        for (int i = arcStart[sinkLabel]; i < arcStart[sinkLabel + 1]; i++) {
+            int a = arcList[i];
+            if ((a & 1) == 0 && edgeFlow[a >> 1] != 0) {
+                return false;
             }
         }
-        if(outFlow != 0) {
-            return false;
+
+        // net flow into each vertex
+        long[] balance = new long[numVertices];
+        for (int e = 0; e < numEdges; e++) {
+            balance[edgeTail[e]] -= edgeFlow[e];
+            balance[edgeHead[e]] += edgeFlow[e];
         }
-        int vertexLabel;
-        int i = 1;
-        while (i < vertices.length - 1) {
-            vertexLabel = vertices[i].getLabel();
-
-            outFlow = 0;
-            for (int adjVertex = 0; adjVertex < adjMatrix[vertexLabel].length; adjVertex++) {
-                if(adjMatrix[vertexLabel][adjVertex] != null) {
-                    outFlow += adjMatrix[vertexLabel][adjVertex].getFlow();
-                }
-            }
 
-            inFlow = 0;
-            for (Edge[] matrix : adjMatrix) {
-                if (matrix[vertexLabel] != null) {
-                    inFlow += matrix[vertexLabel].getFlow();
-                }
-            }
-            if(inFlow != outFlow) {
-                return false;
-            }
-            i++;
+        // check flow is conserved at every other vertex
+        balance[sourceLabel] = 0;
+        balance[sinkLabel] = 0;
+        long unbalanced = 0;
+        for (int u = 0; u < numVertices; u++) {
+            unbalanced |= balance[u];
         }
-        return isFlow;
+        return unbalanced == 0;
     }
 
     /**
@@ -202,16 +354,14 @@ public class Network extends DirectedGraph {
      * @return the value of the flow
      */
     public int getValue() {
+        ensureArcIndex();
         int value = 0;
 
-        ArrayList<Edge> edges = new ArrayList<>();
-
-        for (Vertex vertex: adjLists.get(source.getLabel())) {
-            edges.add(adjMatrix[source.getLabel()][vertex.getLabel()]);
-        }
-
-        for (Edge edge : edges) {
-            value += edge.getFlow();
+        for (int i = arcStart[sourceLabel]; i < arcStart[sourceLabel + 1]; i++) {
+            int a = arcList[i];
+            if ((a & 1) == 0) {
+                value += edgeFlow[a >> 1];
+            }
         }
 
         return value;
@@ -224,15 +374,16 @@ public class Network extends DirectedGraph {
      * for each edge in the network
      */
     public void printFlow() {
-        Set<Edge> flowEdges = new HashSet<>();
-
-        for(int vertexLabel = 0; vertexLabel<adjLists.size(); vertexLabel++){
-            for(Vertex adjVertex : adjLists.get(vertexLabel)){
-                Edge currentEdge = adjMatrix[vertexLabel][adjVertex.getLabel()];
-                if(currentEdge != null && flowEdges.add(currentEdge)){
-                    System.out.printf("(%d,%d) %d/%d%n", vertexLabel, adjVertex.getLabel(), currentEdge.getCap(), currentEdge.getFlow());
+        ensureArcIndex();
+
+        for(int vertexLabel = 0; vertexLabel < numVertices; vertexLabel++){
+            for(int i = arcStart[vertexLabel]; i < arcStart[vertexLabel + 1]; i++){
+                int a = arcList[i];
+                if((a & 1) == 0){
+                    int e = a >> 1;
+                    System.out.printf("(%d,%d) %d/%d%n", vertexLabel, edgeHead[e], edgeCap[e], edgeFlow[e]);
                 }
             }
         }
     }
-}
\ No newline at end of file
+}
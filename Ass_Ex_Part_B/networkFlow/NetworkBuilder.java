@@ -0,0 +1,175 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class NetworkBuilder. Collects the edges of a network in bulk - one at
+ * a time, as parallel arrays or as a flat array of (u, v, capacity) triples -
+ * and then hands them to a new Network in one step. The edges are held in
+ * three int arrays that become the network's own edge arrays, trimmed to
+ * exactly the number of edges, and the arc index is built from them with a
+ * single degree-counting pass followed by a single scatter pass. Building a
+ * network this way does a few sequential sweeps over the edges rather than
+ * one call per edge, and allocates nothing per edge.
+ */
+public class NetworkBuilder {
+
+    /**
+     * Number of vertices of the network being built.
+     */
+    private final int numVertices;
+
+    /**
+     * Number of edges added so far.
+     */
+    private int numEdges;
+
+    /**
+     * The tail label of each edge added.
+     */
+    private int[] tails;
+
+    /**
+     * The head label of each edge added.
+     */
+    private int[] heads;
+
+    /**
+     * The capacity of each edge added.
+     */
+    private int[] caps;
+
+    /**
+     * Instantiates a new NetworkBuilder.
+     *
+     * @param numVertices the number of vertices
+     */
+    public NetworkBuilder(int numVertices) {
+        this(numVertices, 16);
+    }
+
+    /**
+     * Instantiates a new NetworkBuilder with room for the given number of
+     * edges, so that a network of exactly that size is built without copying
+     * the edge arrays.
+     *
+     * @param numVertices the number of vertices, at least 2
+     * @param expectedEdges the number of edges expected
+     */
+    public NetworkBuilder(int numVertices, int expectedEdges) {
+        if (numVertices < 2) {
+            throw new IllegalArgumentException("A network needs at least 2 vertices, not " + numVertices);
+        }
+        this.numVertices = numVertices;
+        tails = new int[expectedEdges];
+        heads = new int[expectedEdges];
+        caps = new int[expectedEdges];
+    }
+
+    /**
+     * Makes sure the edge arrays can hold extra more edges.
+     *
+     * @param extra the number of edges about to be added
+     */
+    private void ensureRoom(int extra) {
+        if (numEdges + extra > tails.length) {
+            int newLength = Math.max(numEdges + extra, 2 * tails.length);
+            tails = Arrays.copyOf(tails, newLength);
+            heads = Arrays.copyOf(heads, newLength);
+            caps = Arrays.copyOf(caps, newLength);
+        }
+    }
+
+    /**
+     * Adds the edge from vertex u to vertex v with the given capacity.
+     *
+     * @param u the label of the source endpoint
+     * @param v the label of the target endpoint
+     * @param capacity the capacity of the edge
+     * @return the id the edge will have in the network
+     */
+    public int addEdge(int u, int v, int capacity) {
+        ensureRoom(1);
+        tails[numEdges] = u;
+        heads[numEdges] = v;
+        caps[numEdges] = capacity;
+        return numEdges++;
+    }
+
+    /**
+     * Adds count edges given as parallel arrays, the i-th running from
+     * us[from + i] to vs[from + i] with capacity capacities[from + i].
+     *
+     * @param us the source endpoints
+     * @param vs the target endpoints
+     * @param capacities the capacities
+     * @param from the index of the first edge in the arrays
+     * @param count the number of edges
+     */
+    public void addEdges(int[] us, int[] vs, int[] capacities, int from, int count) {
+        ensureRoom(count);
+        System.arraycopy(us, from, tails, numEdges, count);
+        System.arraycopy(vs, from, heads, numEdges, count);
+        System.arraycopy(capacities, from, caps, numEdges, count);
+        numEdges += count;
+    }
+
+    /**
+     * Adds count edges given as consecutive (u, v, capacity) triples in a
+     * flat array, starting at triples[from].
+     *
+     * @param triples the edges
+     * @param from the index of the first triple's source endpoint
+     * @param count the number of edges
+     */
+    public void addEdges(int[] triples, int from, int count) {
+        ensureRoom(count);
+        for (int i = 0, j = from; i < count; i++, j += 3) {
+            tails[numEdges + i] = triples[j];
+            heads[numEdges + i] = triples[j + 1];
+            caps[numEdges + i] = triples[j + 2];
+        }
+        numEdges += count;
+    }
+
+    /**
+     * Gets the number of edges added so far.
+     *
+     * @return the number of edges
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Builds the network, carrying zero flow, with the edges in the order
+     * they were added, and empties the builder. The edge arrays are handed to
+     * the network rather than copied.
+     *
+     * @return the network
+     * @throws IllegalArgumentException if an edge has an endpoint that is
+     *                                  not a vertex, or a negative capacity
+     */
+    public Network build() {
+        for (int e = 0; e < numEdges; e++) {
+            if (tails[e] < 0 || tails[e] >= numVertices || heads[e] < 0 || heads[e] >= numVertices) {
+                throw new IllegalArgumentException("Edge (" + tails[e] + "," + heads[e] + ") has an endpoint outside 0.."
+                        + (numVertices - 1));
+            }
+            if (caps[e] < 0) {
+                throw new IllegalArgumentException("Edge (" + tails[e] + "," + heads[e] + ") has negative capacity " + caps[e]);
+            }
+        }
+        Network net = new Network(numVertices);
+        if (tails.length == numEdges) {
+            net.adoptEdges(tails, heads, caps, numEdges);
+        } else {
+            net.adoptEdges(Arrays.copyOf(tails, numEdges), Arrays.copyOf(heads, numEdges), Arrays.copyOf(caps, numEdges), numEdges);
+        }
+        numEdges = 0;
+        tails = new int[0];
+        heads = new int[0];
+        caps = new int[0];
+        return net;
+    }
+}
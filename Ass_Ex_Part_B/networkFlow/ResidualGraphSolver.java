@@ -0,0 +1,45 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class ResidualGraphSolver. The original Ford-Fulkerson loop, which
+ * builds a ResidualGraph for every augmenting path. Kept as the reference
+ * engine the others are checked against. Only runs on a Network, as it relies
+ * on the Vertex and Edge API.
+ */
+public class ResidualGraphSolver implements MaxFlowSolver {
+
+    @Override
+    public String getName() {
+        return "residual";
+    }
+
+    @Override
+    public boolean needsNetwork() {
+        return true;
+    }
+
+    @Override
+    public int solve(FlowGraph graph, SolveControl control) {
+        if (!(graph instanceof Network)) {
+            throw new IllegalArgumentException("The residual engine only runs on a Network");
+        }
+        Network net = (Network) graph;
+        while(!control.shouldStop(net.getValue())){
+
+            ResidualGraph residualGraph = new ResidualGraph(net);
+
+            LinkedList<Edge> augmentingPath = residualGraph.findAugmentingPath();
+
+            if(augmentingPath != null) {
+                net.augmentPath(augmentingPath);
+            }
+
+            else {
+                break;
+            }
+        }
+        return net.getValue();
+    }
+}
@@ -0,0 +1,261 @@
+package networkFlow;
+
+import java.util.*;
+
+/**
+ * The Class VertexReordering. Relabels the vertices of a network so that
+ * vertices visited close together by a search from the source also sit close
+ * together in memory, and builds a copy of the network whose edge arrays are
+ * laid out in the new order. The source keeps label 0 and the sink keeps label
+ * numVertices - 1 so the copy is still a valid Network.
+ */
+public class VertexReordering {
+
+    /**
+     * The network the ordering was computed for.
+     */
+    private final Network original;
+
+    /**
+     * The relabelled copy of the original network.
+     */
+    private final Network reordered;
+
+    /**
+     * newLabel[u] is the label in the copy of vertex u of the original.
+     */
+    private final int[] newLabel;
+
+    /**
+     * oldLabel[v] is the label in the original of vertex v of the copy.
+     */
+    private final int[] oldLabel;
+
+    /**
+     * oldEdge[e] is the id in the original of edge e of the copy.
+     */
+    private final int[] oldEdge;
+
+    /**
+     * newEdge[e] is the id in the copy of edge e of the original.
+     */
+    private final int[] newEdge;
+
+    /**
+     * Instantiates a new VertexReordering from a visiting order of the
+     * original's vertices.
+     *
+     * @param net the original network
+     * @param order the original labels in their new order, starting with the
+     *              source and ending with the sink
+     */
+    private VertexReordering(Network net, int[] order) {
+        original = net;
+        int n = net.numVertices;
+        oldLabel = order;
+        newLabel = new int[n];
+        for (int v = 0; v < n; v++) {
+            newLabel[order[v]] = v;
+        }
+
+        // add the edges grouped by their new tail, so that each vertex's edges
+        // are adjacent in the copy's edge arrays
+        net.ensureArcIndex();
+        NetworkBuilder builder = new NetworkBuilder(n, net.numEdges);
+        oldEdge = new int[net.numEdges];
+        newEdge = new int[net.numEdges];
+        for (int v = 0; v < n; v++) {
+            int u = order[v];
+            for (int i = net.arcStart[u]; i < net.arcStart[u + 1]; i++) {
+                int a = net.arcList[i];
+                if ((a & 1) != 0) {
+                    continue;
+                }
+                int e = a >> 1;
+                int copy = builder.addEdge(v, newLabel[net.edgeHead[e]], net.edgeCap[e]);
+                oldEdge[copy] = e;
+                newEdge[e] = copy;
+            }
+        }
+        reordered = builder.build();
+        for (int copy = 0; copy < reordered.numEdges; copy++) {
+            reordered.edgeFlow[copy] = net.edgeFlow[oldEdge[copy]];
+        }
+    }
+
+    /**
+     * Relabels the vertices of net in breadth-first order from the source,
+     * treating every edge as undirected. Vertices not reachable from the
+     * source follow in their original order.
+     *
+     * @param net the network to reorder
+     * @return the reordering
+     */
+    public static VertexReordering breadthFirst(Network net) {
+        net.ensureArcIndex();
+        int n = net.numVertices;
+        int[] order = new int[n];
+        boolean[] placed = new boolean[n];
+        placed[net.sinkLabel] = true;
+        int count = 0;
+
+        int next = 0;
+        for (int root = net.sourceLabel; count < n - 1; root = next++) {
+            if (placed[root]) {
+                continue;
+            }
+            int head = count;
+            order[count++] = root;
+            placed[root] = true;
+            while (head < count) {
+                int u = order[head++];
+                for (int i = net.arcStart[u]; i < net.arcStart[u + 1]; i++) {
+                    int v = net.arcHead(net.arcList[i]);
+                    if (!placed[v]) {
+                        placed[v] = true;
+                        order[count++] = v;
+                    }
+                }
+            }
+        }
+        order[n - 1] = net.sinkLabel;
+        return new VertexReordering(net, order);
+    }
+
+    /**
+     * Relabels the vertices of net in reverse Cuthill-McKee order, treating
+     * every edge as undirected. The Cuthill-McKee search starts at the source,
+     * visits neighbours in order of increasing degree and restarts from a
+     * vertex of minimum degree for each unreached component. The order of the
+     * vertices other than the source and sink is then reversed.
+     *
+     * @param net the network to reorder
+     * @return the reordering
+     */
+    public static VertexReordering reverseCuthillMcKee(Network net) {
+        net.ensureArcIndex();
+        int n = net.numVertices;
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            degree[u] = net.arcStart[u + 1] - net.arcStart[u];
+        }
+
+        // candidate roots for later components, in order of increasing degree
+        Integer[] byDegree = new Integer[n];
+        for (int u = 0; u < n; u++) {
+            byDegree[u] = u;
+        }
+        Arrays.sort(byDegree, (x, y) -> Integer.compare(degree[x], degree[y]));
+
+        int[] order = new int[n];
+        boolean[] placed = new boolean[n];
+        placed[net.sinkLabel] = true;
+        int count = 0;
+        int[] neighbours = new int[n];
+
+        int next = 0;
+        int root = net.sourceLabel;
+        while (count < n - 1) {
+            if (!placed[root]) {
+                int head = count;
+                order[count++] = root;
+                placed[root] = true;
+                while (head < count) {
+                    int u = order[head++];
+                    int numNeighbours = 0;
+                    for (int i = net.arcStart[u]; i < net.arcStart[u + 1]; i++) {
+                        int v = net.arcHead(net.arcList[i]);
+                        if (!placed[v]) {
+                            placed[v] = true;
+                            neighbours[numNeighbours++] = v;
+                        }
+                    }
+                    sortByDegree(neighbours, numNeighbours, degree);
+                    System.arraycopy(neighbours, 0, order, count, numNeighbours);
+                    count += numNeighbours;
+                }
+            }
+            if (next < n) {
+                root = byDegree[next++];
+            }
+        }
+
+        // reverse everything after the source, which must keep label 0
+        for (int i = 1, j = n - 2; i < j; i++, j--) {
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        order[n - 1] = net.sinkLabel;
+        return new VertexReordering(net, order);
+    }
+
+    /**
+     * Sorts the first length entries of labels by increasing degree. Insertion
+     * sort is used as neighbour lists are short and mostly presorted.
+     *
+     * @param labels the vertex labels to sort
+     * @param length the number of labels to sort
+     * @param degree the degree of each vertex
+     */
+    private static void sortByDegree(int[] labels, int length, int[] degree) {
+        for (int i = 1; i < length; i++) {
+            int label = labels[i];
+            int j = i - 1;
+            while (j >= 0 && degree[labels[j]] > degree[label]) {
+                labels[j + 1] = labels[j];
+                j--;
+            }
+            labels[j + 1] = label;
+        }
+    }
+
+    /**
+     * Gets the relabelled copy of the network.
+     *
+     * @return the reordered network
+     */
+    public Network getNetwork() {
+        return reordered;
+    }
+
+    /**
+     * Gets the label in the reordered network of a vertex of the original.
+     *
+     * @param u the original label
+     * @return the new label
+     */
+    public int getNewLabel(int u) {
+        return newLabel[u];
+    }
+
+    /**
+     * Gets the label in the original network of a vertex of the copy.
+     *
+     * @param v the new label
+     * @return the original label
+     */
+    public int getOriginalLabel(int v) {
+        return oldLabel[v];
+    }
+
+    /**
+     * Gets the id in the reordered network of an edge of the original.
+     *
+     * @param e the original edge id
+     * @return the edge id in the copy
+     */
+    public int getNewEdge(int e) {
+        return newEdge[e];
+    }
+
+    /**
+     * Copies the flow on every edge of the reordered network back onto the
+     * corresponding edge of the original network.
+     */
+    public void copyFlowToOriginal() {
+        for (int e = 0; e < reordered.numEdges; e++) {
+            original.edgeFlow[oldEdge[e]] = reordered.edgeFlow[e];
+        }
+    }
+}